@@ -0,0 +1,117 @@
+package jin.benchmark;
+
+import jin.databind.JsonBaseSerializer;
+import jin.io.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializerBenchmark {
+
+    private final JsonBaseSerializer reflective = new JsonBaseSerializer(false);
+
+    private final JsonBaseSerializer compiled = new JsonBaseSerializer(true);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+
+    private List<Person> people;
+
+    @Setup
+    public void setUp() {
+        people = new ArrayList<>();
+
+        for (int i = 0; i < 100; ++i) {
+            people.add(new Person(i, "John" + i, "Doe", 20 + i % 50, i % 2 == 0, 1000.5 * i, Arrays.asList("Jane", "Jill")));
+        }
+    }
+
+    @Benchmark
+    public int reflective() throws IOException {
+        return serialize(reflective);
+    }
+
+    @Benchmark
+    public int compiled() throws IOException {
+        return serialize(compiled);
+    }
+
+    private int serialize(JsonBaseSerializer serializer) throws IOException {
+        out.reset();
+
+        JsonWriter writer = new JsonWriter(out);
+
+        serializer.serialize(people, writer);
+
+        writer.flush();
+
+        return out.size();
+    }
+
+    public static class Person {
+        private long id;
+
+        private String firstName;
+
+        private String lastName;
+
+        private int age;
+
+        private boolean active;
+
+        private double balance;
+
+        private List<String> friends;
+
+        public Person() {
+        }
+
+        public Person(long id, String firstName, String lastName, int age, boolean active, double balance, List<String> friends) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.age = age;
+            this.active = active;
+            this.balance = balance;
+            this.friends = friends;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public double getBalance() {
+            return balance;
+        }
+
+        public List<String> getFriends() {
+            return friends;
+        }
+    }
+}
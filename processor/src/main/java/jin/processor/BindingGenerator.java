@@ -0,0 +1,688 @@
+package jin.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class BindingGenerator {
+
+    static final String JSON_GETTER = "jin.annotations.JsonGetter";
+    static final String JSON_TYPE_INFO = "jin.annotations.JsonTypeInfo";
+
+    static final String SERIALIZER_SUFFIX = "$$JsonSerializer";
+    static final String DESERIALIZER_SUFFIX = "$$JsonDeserializer";
+
+    static final String TOKEN_TYPE = "jin.io.TokenType";
+
+    private final ProcessingEnvironment env;
+
+    private final Elements elements;
+
+    private final Types types;
+
+    private final TypeElement type;
+
+    private final String packageName;
+
+    private final String typeName;
+
+    private final String bindingName;
+
+    private final List<Property> serialized = new ArrayList<>();
+
+    private final Map<String, Property> deserialized = new LinkedHashMap<>();
+
+    private final List<String> constants = new ArrayList<>();
+
+    // names of the constants, keyed by their type and initializer, so equal constants are declared once
+    private final Map<String, String> constantNames = new HashMap<>();
+
+    private String typeInfo;
+
+    private String typeProperty;
+
+    private String typeRead;
+
+    private boolean deserializable = true;
+
+    private boolean failed;
+
+    BindingGenerator(ProcessingEnvironment env, TypeElement type) {
+        this.env = env;
+        this.elements = env.getElementUtils();
+        this.types = env.getTypeUtils();
+        this.type = type;
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        this.typeName = types.erasure(type.asType()).toString();
+
+        String binaryName = elements.getBinaryName(type).toString();
+        this.bindingName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+    }
+
+    void generate() throws IOException {
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            error(type, "@Json classes nested in another class must be static");
+        }
+
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "@Json classes cannot be private");
+        }
+
+        collectTypeInfo();
+        collectProperties(type);
+
+        if (failed) {
+            return;
+        }
+
+        write(bindingName + SERIALIZER_SUFFIX, serializerSource());
+
+        constants.clear();
+        constantNames.clear();
+
+        if (deserializable && hasDefaultConstructor()) {
+            write(bindingName + DESERIALIZER_SUFFIX, deserializerSource());
+        }
+    }
+
+    private void collectTypeInfo() {
+        TypeElement root = type;
+        TypeElement parent = superclass(type);
+
+        while (parent != null) {
+            root = parent;
+            parent = superclass(parent);
+        }
+
+        AnnotationMirror info = annotation(root, JSON_TYPE_INFO);
+
+        if (info == null) {
+            return;
+        }
+
+        typeInfo = value(info, "use").toString();
+        typeProperty = (String) value(info, "property");
+
+        if (typeInfo.equals("CUSTOM")) {
+            for (VariableElement field : ElementFilter.fieldsIn(root.getEnclosedElements())) {
+                if (field.getSimpleName().contentEquals(typeProperty)) {
+                    typeRead = readExpression(field);
+
+                    if (typeRead == null) {
+                        error(field, "type info property '" + typeProperty + "' must be accessible from package '" + packageName + "' or have a getter");
+                    }
+                }
+            }
+
+            if (typeRead == null) {
+                typeInfo = null;
+            }
+        }
+    }
+
+    private void collectProperties(TypeElement cls) {
+        TypeElement parent = superclass(cls);
+
+        if (parent != null) {
+            collectProperties(parent);
+        }
+
+        AnnotationMirror info = annotation(cls, JSON_TYPE_INFO);
+        String customTypeProperty = info != null && value(info, "use").toString().equals("CUSTOM") ? (String) value(info, "property") : null;
+
+        for (VariableElement field : ElementFilter.fieldsIn(cls.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            AnnotationMirror json = annotation(field, JsonProcessor.JSON);
+
+            String name = field.getSimpleName().toString();
+
+            if (json != null && !((String) value(json, "property")).trim().equals("")) {
+                name = (String) value(json, "property");
+            }
+
+            Property property = new Property(name, field.asType());
+            property.read = readExpression(field);
+            property.write = writeTemplate(field);
+            property.serializer = customClass(json, "serializeWith", "jin.databind.JsonSerializer");
+            property.deserializer = customClass(json, "deserializeWith", "jin.databind.JsonDeserializer");
+
+            boolean ignored = json != null && (Boolean) value(json, "ignore");
+
+            if (!ignored && !field.getSimpleName().contentEquals(String.valueOf(customTypeProperty))) {
+                if (property.read == null) {
+                    error(field, "field '" + field.getSimpleName() + "' must be accessible from package '" + packageName + "' or have a getter");
+                }
+
+                serialized.add(property);
+            }
+
+            if (property.write != null || property.read != null && (isCollection(property.type) || isMap(property.type))) {
+                deserialized.put(name, property);
+
+            } else if (!ignored && deserializable) {
+                env.getMessager().printMessage(Diagnostic.Kind.WARNING, "field '" + field.getSimpleName() + "' is neither writable from package '" + packageName + "' nor has a setter, " + typeName + " will be deserialized reflectively", field);
+
+                deserializable = false;
+            }
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(cls.getEnclosedElements())) {
+            AnnotationMirror getter = annotation(method, JSON_GETTER);
+
+            if (getter == null) {
+                continue;
+            }
+
+            if (!accessible(method) || !method.getParameters().isEmpty()) {
+                error(method, "@JsonGetter method '" + method.getSimpleName() + "' must take no parameter and be accessible from package '" + packageName + "'");
+
+                continue;
+            }
+
+            String name = ((String) value(getter, "name")).trim().equals("") ? method.getSimpleName().toString() : (String) value(getter, "name");
+
+            Property property = new Property(name, method.getReturnType());
+            property.read = "object." + method.getSimpleName() + "()";
+            property.serializer = customClass(getter, "serializeWith", "jin.databind.JsonSerializer");
+
+            serialized.add(property);
+        }
+    }
+
+    private String serializerSource() {
+        StringBuilder body = new StringBuilder();
+
+        boolean comma = false;
+
+        if ("CLASS".equals(typeInfo)) {
+            body.append("        writer.writeField(").append(literal(typeProperty)).append(", ").append(literal(type.getQualifiedName().toString())).append(");\n");
+            comma = true;
+
+        } else if ("CUSTOM".equals(typeInfo)) {
+            body.append("        writer.writeField(").append(literal(typeProperty)).append(", java.lang.String.valueOf(").append(typeRead).append("));\n");
+            comma = true;
+        }
+
+        for (Property property : serialized) {
+            if (comma) {
+                body.append("        writer.writeComma();\n");
+            }
+
+            comma = true;
+
+            body.append("        writer.writeFieldName(").append(literal(property.name)).append(");\n");
+            body.append("        ").append(serializeStatement(property)).append("\n");
+        }
+
+        StringBuilder source = header();
+
+        source.append("public final class ").append(bindingName).append(SERIALIZER_SUFFIX)
+                .append(" extends jin.databind.JsonSerializer<").append(typeName).append("> {\n\n");
+
+        source.append("    private static final jin.databind.JsonBaseSerializer VALUES = new jin.databind.JsonBaseSerializer();\n\n");
+        appendConstants(source);
+
+        source.append("    @Override\n");
+        source.append("    public void serialize(").append(typeName).append(" object, jin.io.JsonWriter writer) throws java.io.IOException {\n");
+        source.append("        if (object == null) {\n");
+        source.append("            writer.writeNull();\n\n");
+        source.append("            return;\n");
+        source.append("        }\n\n");
+        source.append("        writer.writeObjectStart();\n\n");
+        source.append(body).append("\n");
+        source.append("        writer.writeObjectEnd();\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        return source.toString();
+    }
+
+    private String serializeStatement(Property property) {
+        String value = property.read;
+
+        if (property.serializer != null) {
+            return constant(property.serializer, "new " + property.serializer + "()") + ".serialize(" + value + ", writer);";
+        }
+
+        switch (property.type.getKind()) {
+            case BOOLEAN:
+                return "writer.writeBoolean(" + value + ");";
+
+            case INT:
+            case SHORT:
+            case BYTE:
+                return "writer.writeInt(" + value + ");";
+
+            case LONG:
+                return "writer.writeLong(" + value + ");";
+
+            case FLOAT:
+                return "writer.writeFloat(" + value + ");";
+
+            case DOUBLE:
+                return "writer.writeDouble(" + value + ");";
+
+            default:
+                if (isType(property.type, "java.lang.String")) {
+                    return "writer.writeString(" + value + ");";
+                }
+
+                return "VALUES.serialize(" + value + ", writer);";
+        }
+    }
+
+    private String deserializerSource() {
+        StringBuilder cases = new StringBuilder();
+
+        for (Map.Entry<String, Property> entry : deserialized.entrySet()) {
+            cases.append("                case ").append(literal(entry.getKey())).append(":\n");
+            cases.append("                    ").append(deserializeStatement(entry.getValue())).append("\n");
+            cases.append("                    break;\n\n");
+        }
+
+        StringBuilder source = header();
+
+        source.append("public final class ").append(bindingName).append(DESERIALIZER_SUFFIX)
+                .append(" extends jin.databind.JsonDeserializer<").append(typeName).append("> {\n\n");
+
+        source.append("    private static final jin.databind.JsonBaseDeserializer VALUES = new jin.databind.JsonBaseDeserializer();\n\n");
+        appendConstants(source);
+
+        source.append("    @Override\n");
+        source.append("    public ").append(typeName).append(" deserialize(jin.io.JsonReader reader) throws java.io.IOException, jin.io.JsonProcessingException {\n");
+        source.append("        if (reader.accept(").append(TOKEN_TYPE).append(".NULL)) {\n");
+        source.append("            reader.consume(").append(TOKEN_TYPE).append(".NULL);\n\n");
+        source.append("            return null;\n");
+        source.append("        }\n\n");
+        source.append("        reader.consume(").append(TOKEN_TYPE).append(".OBJECT_START);\n\n");
+        source.append("        ").append(typeName).append(" object = new ").append(typeName).append("();\n\n");
+        source.append("        if (reader.accept(").append(TOKEN_TYPE).append(".OBJECT_END)) {\n");
+        source.append("            reader.consume(").append(TOKEN_TYPE).append(".OBJECT_END);\n\n");
+        source.append("            return object;\n");
+        source.append("        }\n\n");
+        source.append("        while (true) {\n");
+        source.append("            java.lang.String property = reader.expectString();\n\n");
+        source.append("            reader.consume(").append(TOKEN_TYPE).append(".COLON);\n\n");
+        source.append("            switch (property) {\n");
+        source.append(cases);
+        source.append("                default:\n");
+        source.append("                    reader.skipValue();\n");
+        source.append("                    break;\n");
+        source.append("            }\n\n");
+        source.append("            if (reader.accept(").append(TOKEN_TYPE).append(".OBJECT_END)) {\n");
+        source.append("                reader.consume(").append(TOKEN_TYPE).append(".OBJECT_END);\n\n");
+        source.append("                return object;\n");
+        source.append("            }\n\n");
+        source.append("            reader.consume(").append(TOKEN_TYPE).append(".COMMA);\n");
+        source.append("        }\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        return source.toString();
+    }
+
+    private String deserializeStatement(Property property) {
+        TypeMirror type = property.type;
+
+        if (property.deserializer != null) {
+            String deserializer = constant(property.deserializer, "new " + property.deserializer + "()");
+
+            return assign(property, "(" + boxedName(type) + ") " + deserializer + ".deserialize(reader)");
+        }
+
+        if (property.read != null && (isCollection(type) || isMap(type))) {
+            String fill = isCollection(type)
+                    ? "VALUES.deserializeCollection((java.util.Collection) " + property.read + ", reader, " + typeArgument(type, 0) + ");"
+                    : "VALUES.deserializeMap((java.util.Map) " + property.read + ", reader, " + typeArgument(type, 0) + ", " + typeArgument(type, 1) + ");";
+
+            String nullValue = "if (reader.accept(" + TOKEN_TYPE + ".NULL)) {\n"
+                    + "                        reader.consume(" + TOKEN_TYPE + ".NULL);\n";
+
+            if (property.write == null) {
+                // a property which can not be assigned keeps its instance
+                return nullValue
+                        + "                    } else {\n"
+                        + "                        " + fill + "\n"
+                        + "                    }";
+            }
+
+            // fill the instance created by the constructor, if any
+            return nullValue
+                    + "                        " + assign(property, "null") + "\n"
+                    + "                    } else if (" + property.read + " != null) {\n"
+                    + "                        " + fill + "\n"
+                    + "                    } else {\n"
+                    + "                        " + assign(property, "(" + boxedName(type) + ") VALUES.deserializeValue(reader, " + typeExpression(type) + ")") + "\n"
+                    + "                    }";
+        }
+
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return assign(property, "VALUES.deserializeBoolean(reader)");
+
+            case INT:
+                return assign(property, "VALUES.deserializeInteger(reader)");
+
+            case SHORT:
+            case BYTE:
+                return assign(property, "(" + type + ") VALUES.deserializeInteger(reader)");
+
+            case LONG:
+                return assign(property, "VALUES.deserializeLong(reader)");
+
+            case FLOAT:
+                return assign(property, "VALUES.deserializeFloat(reader)");
+
+            case DOUBLE:
+                return assign(property, "VALUES.deserializeDouble(reader)");
+
+            default:
+                if (isType(type, "java.lang.String")) {
+                    return assign(property, "reader.accept(" + TOKEN_TYPE + ".NULL) ? (java.lang.String) VALUES.deserializeValue(reader, java.lang.String.class) : VALUES.deserializeString(reader)");
+                }
+
+                return assign(property, "(" + boxedName(type) + ") VALUES.deserializeValue(reader, " + typeExpression(type) + ")");
+        }
+    }
+
+    private String assign(Property property, String value) {
+        return property.write.replace("%s", value);
+    }
+
+    private String typeArgument(TypeMirror type, int index) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+
+        if (arguments.size() <= index) {
+            return "new jin.type.GuessType()";
+        }
+
+        return typeExpression(arguments.get(index));
+    }
+
+    // a java.lang.reflect.Type expression understood by JsonBaseDeserializer.deserializeValue()
+    private String typeExpression(TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.ARRAY) {
+            return types.erasure(type) + ".class";
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return "new jin.type.GuessType()";
+        }
+
+        DeclaredType declared = (DeclaredType) type;
+
+        if (declared.getTypeArguments().isEmpty()) {
+            return types.erasure(type) + ".class";
+        }
+
+        if (isCollection(type)) {
+            String expression = "new jin.type.CollectionType(" + concreteClass(type) + ".class, " + typeArgument(type, 0) + ")";
+
+            return constant("java.lang.reflect.Type", expression);
+        }
+
+        if (isMap(type)) {
+            String expression = "new jin.type.MapType(" + concreteClass(type) + ".class, " + typeArgument(type, 0) + ", " + typeArgument(type, 1) + ")";
+
+            return constant("java.lang.reflect.Type", expression);
+        }
+
+        return types.erasure(type) + ".class";
+    }
+
+    private String concreteClass(TypeMirror type) {
+        TypeElement element = (TypeElement) types.asElement(type);
+
+        if (!element.getModifiers().contains(Modifier.ABSTRACT) && element.getKind().isClass()) {
+            return types.erasure(type).toString();
+        }
+
+        if (isMap(type)) {
+            return isSubtype(type, "java.util.SortedMap") ? "java.util.TreeMap" : "java.util.LinkedHashMap";
+        }
+
+        if (isSubtype(type, "java.util.SortedSet")) {
+            return "java.util.TreeSet";
+        }
+
+        if (isSubtype(type, "java.util.Set")) {
+            return "java.util.LinkedHashSet";
+        }
+
+        if (isSubtype(type, "java.util.Queue")) {
+            return "java.util.ArrayDeque";
+        }
+
+        return "java.util.ArrayList";
+    }
+
+    private String constant(String type, String expression) {
+        String key = type + " = " + expression;
+        String name = constantNames.get(key);
+
+        if (name == null) {
+            name = "CONSTANT_" + constants.size();
+
+            constants.add("    private static final " + type + " " + name + " = " + expression + ";\n");
+            constantNames.put(key, name);
+        }
+
+        return name;
+    }
+
+    private void appendConstants(StringBuilder source) {
+        for (String constant : constants) {
+            source.append(constant);
+        }
+
+        if (!constants.isEmpty()) {
+            source.append("\n");
+        }
+    }
+
+    private StringBuilder header() {
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+
+        return source;
+    }
+
+    private void write(String name, String source) throws IOException {
+        String qualifiedName = packageName.isEmpty() ? name : packageName + "." + name;
+
+        try (Writer writer = env.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private String readExpression(VariableElement field) {
+        if (accessible(field)) {
+            return "object." + field.getSimpleName();
+        }
+
+        String name = capitalize(field.getSimpleName().toString());
+
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            String methodName = method.getSimpleName().toString();
+
+            if ((methodName.equals("get" + name) || methodName.equals("is" + name)) && method.getParameters().isEmpty()
+                    && accessible(method) && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(types.erasure(method.getReturnType()), types.erasure(field.asType()))) {
+
+                return "object." + methodName + "()";
+            }
+        }
+
+        return null;
+    }
+
+    private String writeTemplate(VariableElement field) {
+        if (accessible(field) && !field.getModifiers().contains(Modifier.FINAL)) {
+            return "object." + field.getSimpleName() + " = %s;";
+        }
+
+        String name = "set" + capitalize(field.getSimpleName().toString());
+
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1
+                    && accessible(method) && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(types.erasure(method.getParameters().get(0).asType()), types.erasure(field.asType()))) {
+
+                return "object." + name + "(%s);";
+            }
+        }
+
+        return null;
+    }
+
+    private boolean hasDefaultConstructor() {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && accessible(constructor)) {
+                return true;
+            }
+        }
+
+        env.getMessager().printMessage(Diagnostic.Kind.WARNING, "no accessible no-arg constructor, " + typeName + " will be deserialized reflectively", type);
+
+        return false;
+    }
+
+    private boolean accessible(Element member) {
+        if (member.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+
+        return member.getModifiers().contains(Modifier.PUBLIC) || elements.getPackageOf(member).getQualifiedName().contentEquals(packageName);
+    }
+
+    private TypeElement superclass(TypeElement cls) {
+        TypeMirror superclass = cls.getSuperclass();
+
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        TypeElement element = (TypeElement) types.asElement(superclass);
+
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+
+        return null;
+    }
+
+    private Object value(AnnotationMirror mirror, String key) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(key)) {
+                return entry.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private String customClass(AnnotationMirror mirror, String key, String none) {
+        if (mirror == null) {
+            return null;
+        }
+
+        String name = types.erasure((TypeMirror) value(mirror, key)).toString();
+
+        return name.equals(none) ? null : name;
+    }
+
+    private String boxedName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+
+        return types.erasure(type).toString();
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        return isSubtype(type, "java.util.Collection");
+    }
+
+    private boolean isMap(TypeMirror type) {
+        return isSubtype(type, "java.util.Map");
+    }
+
+    private boolean isSubtype(TypeMirror type, String name) {
+        TypeElement element = elements.getTypeElement(name);
+
+        return type.getKind() == TypeKind.DECLARED && types.isSubtype(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private boolean isType(TypeMirror type, String name) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) types.asElement(type)).getQualifiedName().contentEquals(name);
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private void error(Element element, String message) {
+        env.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+
+        failed = true;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static class Property {
+
+        final String name;
+
+        final TypeMirror type;
+
+        String read;
+
+        String write;
+
+        String serializer;
+
+        String deserializer;
+
+        Property(String name, TypeMirror type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package jin.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.Set;
+
+@SupportedAnnotationTypes(JsonProcessor.JSON)
+public class JsonProcessor extends AbstractProcessor {
+
+    static final String JSON = "jin.annotations.Json";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement json = processingEnv.getElementUtils().getTypeElement(JSON);
+
+        if (json == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(json)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+
+            try {
+                new BindingGenerator(processingEnv, (TypeElement) element).generate();
+
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write JSON bindings: " + e.getMessage(), element);
+            }
+        }
+
+        return false;
+    }
+}
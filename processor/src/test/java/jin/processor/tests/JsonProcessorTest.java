@@ -0,0 +1,166 @@
+package jin.processor.tests;
+
+import jin.Json;
+import jin.processor.JsonProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static final String PERSON = "package p;\n"
+            + "\n"
+            + "import jin.annotations.Json;\n"
+            + "import jin.annotations.JsonGetter;\n"
+            + "import java.util.*;\n"
+            + "\n"
+            + "@Json\n"
+            + "public class Person {\n"
+            + "    public enum Gender { MALE, FEMALE }\n"
+            + "\n"
+            + "    @Json(property = \"first_name\")\n"
+            + "    private String firstName;\n"
+            + "\n"
+            + "    String lastName;\n"
+            + "\n"
+            + "    private int age;\n"
+            + "\n"
+            + "    public long id;\n"
+            + "\n"
+            + "    public double score;\n"
+            + "\n"
+            + "    public boolean active;\n"
+            + "\n"
+            + "    public Gender gender;\n"
+            + "\n"
+            + "    private List<String> friends = new ArrayList<>();\n"
+            + "\n"
+            + "    public Map<String, List<Integer>> scores;\n"
+            + "\n"
+            + "    public Map<String, Integer> ranks = new HashMap<>();\n"
+            + "\n"
+            + "    public Address address;\n"
+            + "\n"
+            + "    @Json(ignore = true)\n"
+            + "    private String secret;\n"
+            + "\n"
+            + "    @JsonGetter(name = \"fullName\")\n"
+            + "    public String fullName() { return firstName + \" \" + lastName; }\n"
+            + "\n"
+            + "    public String getFirstName() { return firstName; }\n"
+            + "    public void setFirstName(String firstName) { this.firstName = firstName; }\n"
+            + "    public int getAge() { return age; }\n"
+            + "    public void setAge(int age) { this.age = age; }\n"
+            + "    public List<String> getFriends() { return friends; }\n"
+            + "\n"
+            + "    @Json\n"
+            + "    public static class Address {\n"
+            + "        public String city;\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void generateSerializerAndDeserializer() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassLoader loader = compile(diagnostics, "p.Person", PERSON);
+
+        Class<?> cls = loader.loadClass("p.Person");
+
+        assertEquals(loader.loadClass("p.Person$$JsonSerializer"), generatedBinding("serializer", cls).getClass());
+        assertEquals(loader.loadClass("p.Person$$JsonDeserializer"), generatedBinding("deserializer", cls).getClass());
+        assertEquals(loader.loadClass("p.Person$Address$$JsonSerializer"), generatedBinding("serializer", loader.loadClass("p.Person$Address")).getClass());
+
+        String json = "{\"first_name\":\"John\",\"lastName\":\"Doe\",\"age\":25,\"id\":12345678901,\"score\":1.5,\"active\":true,"
+                + "\"gender\":\"FEMALE\",\"friends\":[\"Jane\",null],\"scores\":{\"a\":[1,2]},\"ranks\":{\"b\":3},\"address\":{\"city\":\"Paris\"},"
+                + "\"fullName\":\"John Doe\"}";
+
+        Object person = Json.fromJson(json, cls);
+
+        assertEquals(json, Json.toJson(person));
+    }
+
+    @Test
+    public void deserializeNullCollectionAndMap() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Class<?> cls = compile(diagnostics, "p.Person", PERSON).loadClass("p.Person");
+
+        Object person = Json.fromJson("{\"friends\":null,\"ranks\":null,\"age\":25}", cls);
+
+        // friends can not be assigned, so it keeps the list created by the constructor
+        assertEquals(Collections.emptyList(), cls.getMethod("getFriends").invoke(person));
+        assertEquals(null, cls.getField("ranks").get(person));
+        assertEquals(25, cls.getMethod("getAge").invoke(person));
+    }
+
+    @Test
+    public void reportInaccessibleField() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        compile(diagnostics, "p.Secret", "package p;\n@jin.annotations.Json\npublic class Secret {\n    private String value;\n}\n");
+
+        boolean reported = false;
+
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains("field 'value' must be accessible")) {
+                reported = true;
+            }
+        }
+
+        assertTrue(reported);
+    }
+
+    // the binding jin.databind.GeneratedBindings found for cls, which Json.toJson() and Json.fromJson() use
+    private static Object generatedBinding(String kind, Class<?> cls) throws Exception {
+        Method lookup = Class.forName("jin.databind.GeneratedBindings").getDeclaredMethod(kind, Class.class);
+        lookup.setAccessible(true);
+
+        Object binding = lookup.invoke(null, cls);
+
+        assertTrue(binding != null);
+
+        return binding;
+    }
+
+    private ClassLoader compile(DiagnosticCollector<JavaFileObject> diagnostics, String name, final String source) throws Exception {
+        File output = folder.newFolder();
+
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        List<String> options = Arrays.asList(
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", JsonProcessor.class.getName(),
+                "-d", output.getPath(),
+                "-s", output.getPath());
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        compiler.getTask(null, null, diagnostics, options, null, Collections.singletonList(file)).call();
+
+        return new URLClassLoader(new URL[] { output.toURI().toURL() }, JsonProcessorTest.class.getClassLoader());
+    }
+}
@@ -6,7 +6,10 @@ import jin.io.JsonWriter;
 import jin.io.JsonProcessingException;
 import jin.databind.JsonBaseSerializer;
 import jin.tree.JsonDeserializer;
+import jin.tree.JsonLazyDeserializer;
 import jin.tree.JsonNode;
+import jin.tree.JsonTapeDeserializer;
+import jin.tree.JsonTapeNode;
 
 import java.io.*;
 import java.lang.reflect.Type;
@@ -37,6 +40,54 @@ public class Json {
         return readTree(new JsonReader(reader));
     }
 
+    public static JsonTapeNode readTape(String json) throws IOException, JsonProcessingException {
+        return readTape(new StringReader(json));
+    }
+
+    public static JsonTapeNode readTape(File file) throws IOException, JsonProcessingException {
+        return readTape(new FileInputStream(file));
+    }
+
+    public static JsonTapeNode readTape(InputStream is) throws IOException, JsonProcessingException {
+        return readTape(new JsonReader(is));
+    }
+
+    public static JsonTapeNode readTape(Reader reader) throws IOException, JsonProcessingException {
+        return readTape(new JsonReader(reader));
+    }
+
+    public static JsonTapeNode readDirectTape(String json) throws IOException, JsonProcessingException {
+        return readDirectTape(new StringReader(json));
+    }
+
+    public static JsonTapeNode readDirectTape(File file) throws IOException, JsonProcessingException {
+        return readDirectTape(new FileInputStream(file));
+    }
+
+    public static JsonTapeNode readDirectTape(InputStream is) throws IOException, JsonProcessingException {
+        return readDirectTape(new JsonReader(is));
+    }
+
+    public static JsonTapeNode readDirectTape(Reader reader) throws IOException, JsonProcessingException {
+        return readDirectTape(new JsonReader(reader));
+    }
+
+    public static JsonNode readLazyTree(String json) throws IOException, JsonProcessingException {
+        return new JsonLazyDeserializer().deserialize(json);
+    }
+
+    public static JsonNode readLazyTree(File file) throws IOException, JsonProcessingException {
+        return readLazyTree(new FileInputStream(file));
+    }
+
+    public static JsonNode readLazyTree(InputStream is) throws IOException, JsonProcessingException {
+        return readLazyTree(new JsonReader(is));
+    }
+
+    public static JsonNode readLazyTree(Reader reader) throws IOException, JsonProcessingException {
+        return readLazyTree(new JsonReader(reader));
+    }
+
     public static <T> T fromJson(String json, Type type) throws IOException, JsonProcessingException {
         return fromJson(new StringReader(json), type);
     }
@@ -54,12 +105,20 @@ public class Json {
     }
 
     public static void toJson(Object object, File file) throws IOException {
-        toJson(object, new FileOutputStream(file));
+        toJson(object, file, false);
+    }
+
+    public static void toJson(Object object, File file, boolean compiled) throws IOException {
+        toJson(object, new FileOutputStream(file), compiled);
     }
 
     public static String toJson(Object object) throws IOException {
+        return toJson(object, false);
+    }
+
+    public static String toJson(Object object, boolean compiled) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        toJson(object, baos);
+        toJson(object, baos, compiled);
 
         return baos.toString("UTF-8");
     }
@@ -79,14 +138,37 @@ public class Json {
         return object;
     }
 
-    private static JsonNode readTree(JsonReader reader) throws IOException, JsonProcessingException {
+    public static JsonNode readTree(JsonReader reader) throws IOException, JsonProcessingException {
         JsonDeserializer deserializer = new JsonDeserializer();
 
         return deserializer.deserialize(reader);
     }
 
+    public static JsonNode readLazyTree(JsonReader reader) throws IOException, JsonProcessingException {
+        JsonLazyDeserializer deserializer = new JsonLazyDeserializer();
+
+        return deserializer.deserialize(reader);
+    }
+
+    public static JsonTapeNode readTape(JsonReader reader) throws IOException, JsonProcessingException {
+        JsonTapeDeserializer deserializer = new JsonTapeDeserializer();
+
+        return deserializer.deserialize(reader);
+    }
+
+    public static JsonTapeNode readDirectTape(JsonReader reader) throws IOException, JsonProcessingException {
+        JsonTapeDeserializer deserializer = new JsonTapeDeserializer();
+
+        return deserializer.deserializeDirect(reader);
+    }
+
     public static void toJson(Object object, OutputStream os) throws IOException {
-        JsonBaseSerializer serializer = new JsonBaseSerializer();
+        toJson(object, os, false);
+    }
+
+    // compiled serialization builds a serializer per class once, instead of reflecting on every call
+    public static void toJson(Object object, OutputStream os, boolean compiled) throws IOException {
+        JsonBaseSerializer serializer = new JsonBaseSerializer(compiled);
         JsonWriter writer = new JsonWriter(os);
 
         serializer.serialize(object, writer);
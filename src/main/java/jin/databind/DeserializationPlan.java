@@ -0,0 +1,155 @@
+package jin.databind;
+
+import jin.annotations.Json;
+import jin.annotations.JsonType;
+import jin.annotations.JsonTypeInfo;
+import jin.annotations.JsonTypes;
+import jin.type.GuessType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+class DeserializationPlan {
+
+    private static final ClassValue<DeserializationPlan> PLANS = new ClassValue<DeserializationPlan>() {
+        @Override
+        protected DeserializationPlan computeValue(Class<?> type) {
+            return new DeserializationPlan(type);
+        }
+    };
+
+    final boolean instantiable;
+
+    final JsonTypeInfo typeInfo;
+
+    final Map<String, Class<?>> subtypes;
+
+    final Map<String, Property> properties;
+
+    private DeserializationPlan(Class<?> cls) {
+        int mod = cls.getModifiers();
+
+        this.instantiable = !(Modifier.isAbstract(mod) || Modifier.isInterface(mod));
+        this.typeInfo = cls.getAnnotation(JsonTypeInfo.class);
+        this.subtypes = subtypes(cls);
+        this.properties = new HashMap<>();
+
+        collectProperties(cls, properties);
+    }
+
+    static DeserializationPlan of(Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    private static void collectProperties(Class<?> cls, Map<String, Property> properties) {
+        Class<?> superClass = cls.getSuperclass();
+
+        if (superClass != Object.class && superClass != null) {
+            collectProperties(superClass, properties);
+        }
+
+        for (Field field : cls.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+
+            String name = field.getName();
+            JsonDeserializer deserializer = null;
+
+            Json json = field.getAnnotation(Json.class);
+
+            if (json != null) {
+                if (!json.property().trim().equals("")) {
+                    name = json.property();
+                }
+
+                deserializer = instantiate(json.deserializeWith());
+            }
+
+            properties.put(name, new Property(field, deserializer));
+        }
+    }
+
+    private static JsonDeserializer instantiate(Class<? extends JsonDeserializer> deserializerClass) {
+        if (deserializerClass == null || deserializerClass == JsonDeserializer.class) {
+            return null;
+        }
+
+        try {
+            return deserializerClass.newInstance();
+
+        } catch (InstantiationException | IllegalAccessException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private static Map<String, Class<?>> subtypes(Class<?> cls) {
+        Class<?> parentClass = cls;
+        Class<?> superClass = cls;
+
+        while (parentClass != Object.class && parentClass != null) {
+            superClass = parentClass;
+            parentClass = parentClass.getSuperclass();
+        }
+
+        JsonTypes types = superClass.getAnnotation(JsonTypes.class);
+
+        if (types == null) {
+            return null;
+        }
+
+        Map<String, Class<?>> subtypes = new HashMap<>();
+
+        for (JsonType type : types.value()) {
+            if (!subtypes.containsKey(type.id())) {
+                subtypes.put(type.id(), type.value());
+            }
+        }
+
+        return subtypes;
+    }
+
+    static class Property {
+
+        final PropertyAccessor accessor;
+
+        final Class<?> type;
+
+        final boolean collection;
+
+        final boolean map;
+
+        final Type elementType;
+
+        final Type keyType;
+
+        final Type valueType;
+
+        final JsonDeserializer deserializer;
+
+        Property(Field field, JsonDeserializer deserializer) {
+            this.accessor = PropertyAccessor.of(field);
+            this.type = field.getType();
+            this.collection = Collection.class.isAssignableFrom(type);
+            this.map = Map.class.isAssignableFrom(type);
+            this.deserializer = deserializer;
+
+            Type[] parameters = new Type[0];
+
+            if (field.getGenericType() instanceof ParameterizedType) {
+                parameters = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
+            }
+
+            this.elementType = parameters.length > 0 ? parameters[0] : new GuessType();
+            this.keyType = parameters.length > 0 ? parameters[0] : new GuessType();
+            this.valueType = parameters.length > 1 ? parameters[1] : new GuessType();
+        }
+    }
+}
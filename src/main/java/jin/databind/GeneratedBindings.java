@@ -0,0 +1,48 @@
+package jin.databind;
+
+class GeneratedBindings {
+
+    static final String SERIALIZER_SUFFIX = "$$JsonSerializer";
+
+    static final String DESERIALIZER_SUFFIX = "$$JsonDeserializer";
+
+    private static final ClassValue<JsonSerializer> SERIALIZERS = new ClassValue<JsonSerializer>() {
+        @Override
+        protected JsonSerializer computeValue(Class<?> type) {
+            return (JsonSerializer) instantiate(type, SERIALIZER_SUFFIX);
+        }
+    };
+
+    private static final ClassValue<JsonDeserializer> DESERIALIZERS = new ClassValue<JsonDeserializer>() {
+        @Override
+        protected JsonDeserializer computeValue(Class<?> type) {
+            return (JsonDeserializer) instantiate(type, DESERIALIZER_SUFFIX);
+        }
+    };
+
+    static JsonSerializer serializer(Class<?> cls) {
+        return SERIALIZERS.get(cls);
+    }
+
+    static JsonDeserializer deserializer(Class<?> cls) {
+        return DESERIALIZERS.get(cls);
+    }
+
+    private static Object instantiate(Class<?> cls, String suffix) {
+        if (cls.isPrimitive() || cls.isArray() || cls.getName().startsWith("java.")) {
+            return null;
+        }
+
+        try {
+            return Class.forName(cls.getName() + suffix, true, cls.getClassLoader()).newInstance();
+
+        } catch (ClassNotFoundException e) {
+            return null;
+
+        } catch (InstantiationException | IllegalAccessException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+}
@@ -2,7 +2,6 @@ package jin.databind;
 
 import jin.annotations.*;
 import jin.io.JsonReader;
-import jin.io.JsonToken;
 import jin.io.TokenType;
 import jin.io.JsonProcessingException;
 import jin.type.CollectionType;
@@ -15,9 +14,29 @@ import java.lang.reflect.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JsonBaseDeserializer {
 
+    private static final int INITIAL_ARRAY_CAPACITY = 16;
+
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    private final Map<Class<?>, JsonDeserializer> deserializers = new ConcurrentHashMap<>();
+
+    // registrations only apply to this instance and to values declared with exactly the registered class
+    public <T> JsonBaseDeserializer register(Class<T> cls, JsonDeserializer<? extends T> deserializer) {
+        deserializers.put(cls, deserializer);
+
+        return this;
+    }
+
+    public JsonBaseDeserializer unregister(Class<?> cls) {
+        deserializers.remove(cls);
+
+        return this;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T deserialize(JsonReader reader) throws IOException, JsonProcessingException {
         reader.readToken();
@@ -44,117 +63,126 @@ public class JsonBaseDeserializer {
 
     @SuppressWarnings("unchecked")
     private <T> T deserializeObject(JsonReader reader, Class<T> cls) throws IOException, JsonProcessingException {
-        reader.expect(TokenType.OBJECT_START);
+        // generated bindings deserialize nested values without the registrations of this instance
+        JsonDeserializer generated = deserializers.isEmpty() ? GeneratedBindings.deserializer(cls) : null;
+
+        if (generated != null) {
+            return (T) generated.deserialize(reader);
+        }
+
+        reader.consume(TokenType.OBJECT_START);
 
         T object = instantiateObject(cls, reader);
 
         if (reader.accept(TokenType.OBJECT_END)) {
-            reader.expect(TokenType.OBJECT_END);
+            reader.consume(TokenType.OBJECT_END);
 
             return object;
         }
 
-        HashMap<Class<?>, HashMap<String, String>> classHierarchyMap = buildClassHierarchyMap(object.getClass());
-
-        deserializeObjectFields(object, classHierarchyMap, reader);
+        deserializeObjectFields(object, DeserializationPlan.of(object.getClass()), reader);
 
         return object;
     }
 
-    private void deserializeObjectFields(Object object, HashMap<Class<?>, HashMap<String, String>> classHierarchyMap, JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken fieldNameToken = reader.expect(TokenType.STRING);
-
-        reader.expect(TokenType.COLON);
+    private void deserializeObjectFields(Object object, DeserializationPlan plan, JsonReader reader) throws IOException, JsonProcessingException {
+        while (true) {
+            String propertyName = reader.expectString();
 
-        String propertyName = fieldNameToken.getValue();
+            reader.consume(TokenType.COLON);
 
-        Class<?> cls = getDeclaringClass(propertyName, classHierarchyMap);
+            DeserializationPlan.Property property = plan.properties.get(propertyName);
 
-        HashMap<String, String> map = classHierarchyMap.get(cls);
+            if (property == null) {
+                reader.skipValue();
 
-        if (map == null) {
-            reader.skip();
-
-        } else {
+            } else {
+                deserializeField(reader, object, property);
+            }
 
-            String fieldName = map.get(propertyName);
+            if (reader.accept(TokenType.OBJECT_END)) {
+                break;
+            }
 
-            if (cls == null || fieldName == null) {
-                reader.skip();
+            reader.consume(TokenType.COMMA);
+        }
 
-            } else {
+        reader.consume(TokenType.OBJECT_END);
+    }
 
-                deserializeField(reader, cls.cast(object), cls, fieldName);
+    @SuppressWarnings("unchecked")
+    private void deserializeField(JsonReader reader, Object object, DeserializationPlan.Property property) throws IOException, JsonProcessingException {
+        PropertyAccessor accessor = property.accessor;
 
-                if (reader.accept(TokenType.OBJECT_END)) {
-                    reader.expect(TokenType.OBJECT_END);
+        try {
+            if (property.deserializer != null) {
+                accessor.set(object, property.deserializer.deserialize(reader));
 
-                    return;
-                }
+                return;
             }
-        }
 
-        reader.expect(TokenType.COMMA);
+            switch (accessor.kind) {
+                case PropertyAccessor.BOOLEAN:
+                    accessor.setBoolean(object, deserializeBoolean(reader));
+                    break;
 
-        deserializeObjectFields(object, classHierarchyMap, reader);
-    }
+                case PropertyAccessor.INT:
+                    accessor.setInt(object, deserializeInteger(reader));
+                    break;
 
-    private void deserializeField(JsonReader reader, Object object, Class<?> cls, String fieldName) throws IOException, JsonProcessingException {
-        try {
-            Field field = cls.getDeclaredField(fieldName);
-            field.setAccessible(true);
+                case PropertyAccessor.LONG:
+                    accessor.setLong(object, deserializeLong(reader));
+                    break;
 
-            if (!deserializeFieldWithCustomDeserializer(reader, object, field)) {
+                case PropertyAccessor.FLOAT:
+                    accessor.setFloat(object, deserializeFloat(reader));
+                    break;
 
-                if (Collection.class.isAssignableFrom(field.getType())) {
-                    deserializeCollection((Collection) field.get(object), reader, getCollectionTypeParameter(field));
+                case PropertyAccessor.DOUBLE:
+                    accessor.setDouble(object, deserializeDouble(reader));
+                    break;
 
-                } else if (Map.class.isAssignableFrom(field.getType())) {
-                    List<Type> mapTypeParameters = getMapTypeParameters(field);
+                default:
+                    if (reader.accept(TokenType.NULL)) {
+                        reader.consume(TokenType.NULL);
+                        accessor.set(object, null);
 
-                    deserializeMap((Map) field.get(object), reader, mapTypeParameters.get(0), mapTypeParameters.get(1));
+                    } else if (property.collection) {
+                        deserializeCollection((Collection) accessor.get(object), reader, property.elementType);
 
-                } else {
-                    Object value = deserializeValue(reader, field.getType());
+                    } else if (property.map) {
+                        deserializeMap((Map) accessor.get(object), reader, property.keyType, property.valueType);
 
-                    field.set(object, value);
-                }
+                    } else {
+                        accessor.set(object, deserializeValue(reader, property.type));
+                    }
+                    break;
             }
 
-        } catch (NoSuchFieldException | IllegalAccessException e) {
+        } catch (InvocationTargetException e) {
             e.printStackTrace();
 
             throw new JsonProcessingException(e);
         }
     }
 
-    private boolean deserializeFieldWithCustomDeserializer(JsonReader reader, Object object, Field field) throws IOException, JsonProcessingException {
-        if (field.isAnnotationPresent(Json.class)) {
-            Json json = field.getAnnotation(Json.class);
+    private Object deserializeArray(JsonReader reader, Class<?> componentType) throws IOException, JsonProcessingException {
+        if (componentType == int.class) {
+            return deserializeIntArray(reader);
 
-            if (json != null && json.deserializeWith() != null && json.deserializeWith() != JsonDeserializer.class) {
-                Class<? extends JsonDeserializer> deserializerClass = json.deserializeWith();
+        } else if (componentType == long.class) {
+            return deserializeLongArray(reader);
 
-                try {
-                    JsonDeserializer deserializer = deserializerClass.newInstance();
-                    if (deserializer != null) {
-                        Object value = deserializer.deserialize(reader);
+        } else if (componentType == double.class) {
+            return deserializeDoubleArray(reader);
 
-                        field.set(object, value);
+        } else if (componentType == float.class) {
+            return deserializeFloatArray(reader);
 
-                        return true;
-                    }
-                } catch (InstantiationException | IllegalAccessException e) {
-                    e.printStackTrace();
-                    throw new JsonProcessingException(e);
-                }
-            }
+        } else if (componentType == boolean.class) {
+            return deserializeBooleanArray(reader);
         }
 
-        return false;
-    }
-
-    private Object deserializeArray(JsonReader reader, Class<?> componentType) throws IOException, JsonProcessingException {
         ArrayList<Object> list = new ArrayList<>();
 
         deserializeCollection(list, reader, componentType);
@@ -170,9 +198,134 @@ public class JsonBaseDeserializer {
         return array;
     }
 
+    private int[] deserializeIntArray(JsonReader reader) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.ARRAY_START);
+
+        int[] array = new int[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+
+        while (!reader.accept(TokenType.ARRAY_END)) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size << 1);
+            }
+
+            array[size++] = deserializeInteger(reader);
+
+            if (reader.accept(TokenType.ARRAY_END)) {
+                break;
+            }
+
+            reader.consume(TokenType.COMMA);
+        }
+
+        reader.consume(TokenType.ARRAY_END);
+
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private long[] deserializeLongArray(JsonReader reader) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.ARRAY_START);
+
+        long[] array = new long[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+
+        while (!reader.accept(TokenType.ARRAY_END)) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size << 1);
+            }
+
+            array[size++] = deserializeLong(reader);
+
+            if (reader.accept(TokenType.ARRAY_END)) {
+                break;
+            }
+
+            reader.consume(TokenType.COMMA);
+        }
+
+        reader.consume(TokenType.ARRAY_END);
+
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private double[] deserializeDoubleArray(JsonReader reader) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.ARRAY_START);
+
+        double[] array = new double[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+
+        while (!reader.accept(TokenType.ARRAY_END)) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size << 1);
+            }
+
+            array[size++] = deserializeDouble(reader);
+
+            if (reader.accept(TokenType.ARRAY_END)) {
+                break;
+            }
+
+            reader.consume(TokenType.COMMA);
+        }
+
+        reader.consume(TokenType.ARRAY_END);
+
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private float[] deserializeFloatArray(JsonReader reader) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.ARRAY_START);
+
+        float[] array = new float[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+
+        while (!reader.accept(TokenType.ARRAY_END)) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size << 1);
+            }
+
+            array[size++] = deserializeFloat(reader);
+
+            if (reader.accept(TokenType.ARRAY_END)) {
+                break;
+            }
+
+            reader.consume(TokenType.COMMA);
+        }
+
+        reader.consume(TokenType.ARRAY_END);
+
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private boolean[] deserializeBooleanArray(JsonReader reader) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.ARRAY_START);
+
+        boolean[] array = new boolean[INITIAL_ARRAY_CAPACITY];
+        int size = 0;
+
+        while (!reader.accept(TokenType.ARRAY_END)) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size << 1);
+            }
+
+            array[size++] = deserializeBoolean(reader);
+
+            if (reader.accept(TokenType.ARRAY_END)) {
+                break;
+            }
+
+            reader.consume(TokenType.COMMA);
+        }
+
+        reader.consume(TokenType.ARRAY_END);
+
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
     @SuppressWarnings("unchecked")
-    private void deserializeCollection(Collection collection, JsonReader reader, Type componentType) throws IOException, JsonProcessingException {
-        reader.expect(TokenType.ARRAY_START);
+    public void deserializeCollection(Collection collection, JsonReader reader, Type componentType) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.ARRAY_START);
 
         while (!reader.accept(TokenType.ARRAY_END)) {
             collection.add(deserializeValue(reader, componentType));
@@ -181,17 +334,17 @@ public class JsonBaseDeserializer {
                 break;
             }
 
-            reader.expect(TokenType.COMMA);
+            reader.consume(TokenType.COMMA);
         }
 
-        reader.expect(TokenType.ARRAY_END);
+        reader.consume(TokenType.ARRAY_END);
     }
 
-    private void deserializeMap(Map map, JsonReader reader, Type keyType, Type valueType) throws IOException, JsonProcessingException {
-        reader.expect(TokenType.OBJECT_START);
+    public void deserializeMap(Map map, JsonReader reader, Type keyType, Type valueType) throws IOException, JsonProcessingException {
+        reader.consume(TokenType.OBJECT_START);
 
         if (reader.accept(TokenType.OBJECT_END)) {
-            reader.expect(TokenType.OBJECT_END);
+            reader.consume(TokenType.OBJECT_END);
 
             return;
         }
@@ -201,27 +354,27 @@ public class JsonBaseDeserializer {
 
     @SuppressWarnings("unchecked")
     private void deserializeMapEntries(Map map, JsonReader reader, Type keyType, Type valueType) throws IOException, JsonProcessingException {
-        Object key = deserializeValue(reader, keyType);
-
-        reader.expect(TokenType.COLON);
+        while (true) {
+            Object key = deserializeValue(reader, keyType);
 
-        Object value = deserializeValue(reader, valueType);
+            reader.consume(TokenType.COLON);
 
-        map.put(key, value);
+            map.put(key, deserializeValue(reader, valueType));
 
-        if (reader.accept(TokenType.OBJECT_END)) {
-            reader.expect(TokenType.OBJECT_END);
+            if (reader.accept(TokenType.OBJECT_END)) {
+                break;
+            }
 
-            return;
+            reader.consume(TokenType.COMMA);
         }
 
-        reader.expect(TokenType.COMMA);
-
-        deserializeMapEntries(map, reader, keyType, valueType);
+        reader.consume(TokenType.OBJECT_END);
     }
 
-    private Object deserializeValue(JsonReader reader, Type valueType) throws IOException, JsonProcessingException {
+    public Object deserializeValue(JsonReader reader, Type valueType) throws IOException, JsonProcessingException {
         if (reader.accept(TokenType.NULL)) {
+            reader.consume(TokenType.NULL);
+
             return null;
         }
 
@@ -238,57 +391,61 @@ public class JsonBaseDeserializer {
             } else if (valueType instanceof Class<?>) {
                 Class<?> cls = (Class<?>) valueType;
 
-                String type = cls.getName();
+                if (!deserializers.isEmpty()) {
+                    JsonDeserializer deserializer = deserializers.get(cls);
 
-                if (type.equals("java.lang.String")) {
-                    return deserializeString(reader);
+                    if (deserializer != null) {
+                        return deserializer.deserialize(reader);
+                    }
+                }
 
-                } else if (type.equals("int") || type.equals("java.lang.Integer")
-                        || type.equals("short") || type.equals("java.lang.Short")
-                        || type.equals("byte") || type.equals("java.lang.Byte")) {
+                switch (ValueType.of(cls)) {
+                    case STRING:
+                        return deserializeString(reader);
 
-                    return deserializeInteger(reader);
+                    case INT:
+                        return deserializeInteger(reader);
 
-                } else if (type.equals("boolean") || type.equals("java.lang.Boolean")) {
-                    return deserializeBoolean(reader);
+                    case LONG:
+                        return deserializeLong(reader);
 
-                } else if (type.equals("long") || type.equals("java.lang.Long")) {
-                    return deserializeLong(reader);
+                    case DOUBLE:
+                        return deserializeDouble(reader);
 
-                } else if (type.equals("double") || type.equals("java.lang.Double")) {
-                    return deserializeDouble(reader);
+                    case FLOAT:
+                        return deserializeFloat(reader);
 
-                } else if (type.equals("float") || type.equals("java.lang.Float")) {
-                    return deserializeFloat(reader);
+                    case BOOLEAN:
+                        return deserializeBoolean(reader);
 
-                } else if (cls.getName().equals("java.math.BigInteger")) {
-                    return deserializeBigInteger(reader);
+                    case BIG_INTEGER:
+                        return deserializeBigInteger(reader);
 
-                } else if (cls.getName().equals("java.math.BigDecimal")) {
-                    return deserializeBigDecimal(reader);
+                    case BIG_DECIMAL:
+                        return deserializeBigDecimal(reader);
 
-                } else if (cls.isArray()) {
-                    return deserializeArray(reader, cls.getComponentType());
+                    case ARRAY:
+                        return deserializeArray(reader, cls.getComponentType());
 
-                } else if (cls.isEnum()) {
-                    return deserializeEnumConstant(reader, cls);
+                    case ENUM:
+                        return deserializeEnumConstant(reader, cls);
 
-                } else if (Collection.class.isAssignableFrom(cls)) {
-                    Collection collection = (Collection) cls.newInstance();
+                    case COLLECTION:
+                        Collection collection = (Collection) cls.newInstance();
 
-                    deserializeCollection(collection, reader, new GuessType());
+                        deserializeCollection(collection, reader, new GuessType());
 
-                    return collection;
+                        return collection;
 
-                } else if (Map.class.isAssignableFrom(cls)) {
-                    Map map = (Map) cls.newInstance();
+                    case MAP:
+                        Map map = (Map) cls.newInstance();
 
-                    deserializeMap(map, reader, new GuessType(), new GuessType());
+                        deserializeMap(map, reader, new GuessType(), new GuessType());
 
-                    return map;
+                        return map;
 
-                } else {
-                    return deserializeObject(reader, cls);
+                    default:
+                        return deserializeObject(reader, cls);
                 }
             }
 
@@ -375,61 +532,139 @@ public class JsonBaseDeserializer {
         }
     }
 
+    // containers being filled are kept on an explicit stack, the nesting depth is bounded by the reader
+    @SuppressWarnings("unchecked")
     private Object deserializeUnknownTypeValue(JsonReader reader) throws IOException, JsonProcessingException {
-        if (reader.accept(TokenType.NULL)) {
-            return null;
-        }
+        Object[] containers = new Object[INITIAL_STACK_SIZE];
+        Object[] keys = new Object[INITIAL_STACK_SIZE];
+        int depth = 0;
 
-        if (reader.accept(TokenType.STRING)) {
-            return deserializeString(reader);
-        }
+        while (true) {
+            Object value;
 
-        if (reader.accept(TokenType.TRUE) || reader.accept(TokenType.FALSE)) {
-            return deserializeBoolean(reader);
-        }
+            if (reader.accept(TokenType.OBJECT_START)) {
+                reader.readToken();
 
-        if (reader.accept(TokenType.NUMBER)) {
-            String value = reader.currentToken().getValue();
+                if (reader.accept(TokenType.OBJECT_END)) {
+                    reader.readToken();
+                    value = new LinkedHashMap<>();
+
+                } else {
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    containers[depth] = new LinkedHashMap<>();
+                    keys[depth] = deserializeUnknownTypeKey(reader);
+                    depth++;
+                    continue;
+                }
 
-            if (value.contains(".") || value.contains("e") || value.contains("E")) {
+            } else if (reader.accept(TokenType.ARRAY_START)) {
+                reader.readToken();
+
+                if (reader.accept(TokenType.ARRAY_END)) {
+                    reader.readToken();
+                    value = new ArrayList<>();
 
-                if (!Double.isInfinite(Double.parseDouble(value))) {
-                    return deserializeDouble(reader);
                 } else {
-                    return deserializeBigDecimal(reader);
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    containers[depth] = new ArrayList<>();
+                    depth++;
+                    continue;
                 }
 
             } else {
-                try {
-                    Integer.parseInt(value);
-                    return deserializeInteger(reader);
+                value = deserializeUnknownTypeScalarValue(reader);
+            }
 
-                } catch (NumberFormatException e) {
-                    try {
-                        Long.parseLong(value);
-                        return deserializeLong(reader);
+            while (true) {
+                if (depth == 0) {
+                    return value;
+                }
 
-                    } catch (NumberFormatException ex) {
-                        return deserializeBigInteger(reader);
+                Object container = containers[depth - 1];
+
+                if (container instanceof Map) {
+                    ((Map<Object, Object>) container).put(keys[depth - 1], value);
+
+                    if (!reader.accept(TokenType.OBJECT_END)) {
+                        reader.consume(TokenType.COMMA);
+                        keys[depth - 1] = deserializeUnknownTypeKey(reader);
+                        break;
+                    }
+
+                } else {
+                    ((List<Object>) container).add(value);
+
+                    if (!reader.accept(TokenType.ARRAY_END)) {
+                        reader.consume(TokenType.COMMA);
+
+                        if (!reader.accept(TokenType.ARRAY_END)) {
+                            break;
+                        }
                     }
                 }
+
+                reader.readToken();
+
+                value = container;
+                containers[depth - 1] = null;
+                keys[--depth] = null;
             }
         }
+    }
+
+    private Object deserializeUnknownTypeKey(JsonReader reader) throws IOException, JsonProcessingException {
+        Object key = deserializeUnknownTypeScalarValue(reader);
 
-        if (reader.accept(TokenType.ARRAY_START)) {
-            List<Object> list = new ArrayList<>();
+        reader.consume(TokenType.COLON);
 
-            deserializeCollection(list, reader, new GuessType());
+        return key;
+    }
+
+    private Object deserializeUnknownTypeScalarValue(JsonReader reader) throws IOException, JsonProcessingException {
+        if (reader.accept(TokenType.NULL)) {
+            reader.consume(TokenType.NULL);
 
-            return list;
+            return null;
         }
 
-        if (reader.accept(TokenType.OBJECT_START)) {
-            Map<Object, Object> map = new LinkedHashMap<>();
+        if (reader.accept(TokenType.STRING)) {
+            return deserializeString(reader);
+        }
+
+        if (reader.accept(TokenType.TRUE) || reader.accept(TokenType.FALSE)) {
+            return deserializeBoolean(reader);
+        }
+
+        if (reader.accept(TokenType.NUMBER)) {
+            switch (reader.currentNumberType()) {
+                case INT:
+                    return deserializeInteger(reader);
+
+                case LONG:
+                    return deserializeLong(reader);
+
+                case BIG_INTEGER:
+                    return deserializeBigInteger(reader);
+
+                default:
+                    double value = reader.currentDouble();
 
-            deserializeMap(map, reader, new GuessType(), new GuessType());
+                    if (Double.isInfinite(value)) {
+                        return deserializeBigDecimal(reader);
+                    }
+
+                    reader.readToken();
 
-            return map;
+                    return value;
+            }
         }
 
         return null;
@@ -465,136 +700,78 @@ public class JsonBaseDeserializer {
         return null;
     }
 
-    private String deserializeString(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.STRING);
-
-        return expected.getValue();
+    // deserializeString() to deserializeBoolean(), deserializeCollection(), deserializeMap() and deserializeValue()
+    // are public, bindings generated by the annotation processor read property values through them only
+    public String deserializeString(JsonReader reader) throws IOException, JsonProcessingException {
+        return reader.expectString();
     }
 
-    private Integer deserializeInteger(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.NUMBER);
+    public int deserializeInteger(JsonReader reader) throws IOException, JsonProcessingException {
+        long value = reader.expectLong();
 
-        return Integer.parseInt(expected.getValue());
-    }
-
-    private Long deserializeLong(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.NUMBER);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + value + "\"");
+        }
 
-        return Long.parseLong(expected.getValue());
+        return (int) value;
     }
 
-    private Double deserializeDouble(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.NUMBER);
-
-        return Double.parseDouble(expected.getValue());
+    public long deserializeLong(JsonReader reader) throws IOException, JsonProcessingException {
+        return reader.expectLong();
     }
 
-    private Float deserializeFloat(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.NUMBER);
+    public double deserializeDouble(JsonReader reader) throws IOException, JsonProcessingException {
+        return reader.expectDouble();
+    }
 
-        return Float.parseFloat(expected.getValue());
+    public float deserializeFloat(JsonReader reader) throws IOException, JsonProcessingException {
+        return reader.expectFloat();
     }
 
     private BigInteger deserializeBigInteger(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.NUMBER);
+        BigInteger value = reader.currentBigInteger();
+
+        reader.consume(TokenType.NUMBER);
 
-        return new BigInteger(expected.getValue());
+        return value;
     }
 
     private BigDecimal deserializeBigDecimal(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken expected = reader.expect(TokenType.NUMBER);
+        BigDecimal value = reader.currentBigDecimal();
 
-        return new BigDecimal(expected.getValue());
+        reader.consume(TokenType.NUMBER);
+
+        return value;
     }
 
-    private Boolean deserializeBoolean(JsonReader reader) throws IOException, JsonProcessingException {
+    public boolean deserializeBoolean(JsonReader reader) throws IOException, JsonProcessingException {
         if (!(reader.accept(TokenType.TRUE) || reader.accept(TokenType.FALSE))) {
-            throw new JsonProcessingException("expected 'true' or 'false' at position " + reader.currentToken().getPosition());
+            throw new JsonProcessingException("expected 'true' or 'false' at position " + reader.currentPosition());
         }
 
-        JsonToken booleanToken = reader.currentToken();
+        boolean value = reader.accept(TokenType.TRUE);
 
         reader.readToken();
 
-        return Boolean.parseBoolean(booleanToken.getValue());
-    }
-
-    private Type getCollectionTypeParameter(Field field) {
-        return getFieldTypeParameters(field).get(0);
-    }
-
-    private List<Type> getMapTypeParameters(Field field) {
-        return getFieldTypeParameters(field);
-    }
-
-    private List<Type> getFieldTypeParameters(Field field) {
-        Type genericType = field.getGenericType();
-
-        if (genericType instanceof ParameterizedType) {
-            ParameterizedType parameterizedType = (ParameterizedType) genericType;
-
-            Type[] types = parameterizedType.getActualTypeArguments();
-
-            List<Type> list = new ArrayList<>();
-            Collections.addAll(list, types);
-
-            return list;
-        }
-
-        return new ArrayList<>();
-    }
-
-    private HashMap<Class<?>, HashMap<String, String>> buildClassHierarchyMap(Class<?> cls) {
-        HashMap<Class<?>, HashMap<String, String>> map = new HashMap<>();
-
-        HashMap<String, String> fieldNames = new HashMap<>();
-
-        Class<?> superClass = cls.getSuperclass();
-
-        if (superClass != Object.class && superClass != null) {
-            map.putAll(buildClassHierarchyMap(superClass));
-        }
-
-        Field[] fields = cls.getDeclaredFields();
-
-        for (Field field: fields) {
-            field.setAccessible(true);
-
-            if (!field.isAnnotationPresent(Json.class)) {
-                fieldNames.put(field.getName(), field.getName());
-
-            } else {
-                Json json = field.getAnnotation(Json.class);
-
-                if (json.property() != null && !json.property().trim().equals("")) {
-                    fieldNames.put(json.property(), field.getName());
-                } else {
-                    fieldNames.put(field.getName(), field.getName());
-                }
-            }
-        }
-
-        map.put(cls, fieldNames);
-
-        return map;
+        return value;
     }
 
     @SuppressWarnings("unchecked")
     private <T> T instantiateObject(Class<?> cls, JsonReader reader) throws IOException, JsonProcessingException {
         try {
-            int mod = cls.getModifiers();
+            DeserializationPlan plan = DeserializationPlan.of(cls);
 
-            if (!(Modifier.isAbstract(mod) || Modifier.isInterface(mod))) {
+            if (plan.instantiable) {
                 return (T) cls.newInstance();
             }
 
-            if (cls.isAnnotationPresent(JsonTypeInfo.class)) {
+            if (plan.typeInfo != null) {
                 T object = null;
 
-                JsonTypeInfo typeInfo = cls.getAnnotation(JsonTypeInfo.class);
+                JsonTypeInfo typeInfo = plan.typeInfo;
 
                 String typeProperty = deserializeString(reader);
-                reader.expect(TokenType.COLON);
+                reader.consume(TokenType.COLON);
                 String typeId = deserializeString(reader);
 
                 if (typeInfo.use() == JsonTypeInfo.Id.CLASS) {
@@ -605,10 +782,8 @@ public class JsonBaseDeserializer {
                         throw new JsonProcessingException("cannot find type info property '" + typeInfo.property() + "' at the beginning of the object.");
                     }
 
-                    JsonTypes types = getTypes(cls);
-
-                    if (types != null) {
-                        Class<?> c = getTypeValue(types, typeId);
+                    if (plan.subtypes != null) {
+                        Class<?> c = plan.subtypes.get(typeId);
 
                         if (c == null) {
                             throw new JsonProcessingException("cannot instantiate object of type '" + cls.getName() + "'");
@@ -619,7 +794,7 @@ public class JsonBaseDeserializer {
                 }
 
                 if (reader.accept(TokenType.COMMA)) {
-                    reader.expect(TokenType.COMMA);
+                    reader.consume(TokenType.COMMA);
                 }
 
                 return object;
@@ -633,43 +808,4 @@ public class JsonBaseDeserializer {
             throw new JsonProcessingException(e);
         }
     }
-
-    private Class<?> getDeclaringClass(String fieldName, HashMap<Class<?>, HashMap<String, String>> map) {
-        Set<Class<?>> classes = map.keySet();
-
-        for (Class<?> cls: classes) {
-            HashMap<String, String> fieldNames = map.get(cls);
-            if (fieldNames.containsKey(fieldName)) {
-                return cls;
-            }
-        }
-
-        return null;
-    }
-
-    private JsonTypes getTypes(Class<?> cls) {
-        Class<?> parentClass = cls;
-        Class<?> superClass = cls;
-
-        while (parentClass != Object.class && parentClass != null) {
-            superClass = parentClass;
-            parentClass = parentClass.getSuperclass();
-        }
-
-        if (superClass.isAnnotationPresent(JsonTypes.class)) {
-            return superClass.getAnnotation(JsonTypes.class);
-        }
-
-        return null;
-    }
-
-    private Class<?> getTypeValue(JsonTypes types, String typeId) {
-        for (JsonType type: types.value()) {
-            if (type.id().equals(typeId)) {
-                return type.value();
-            }
-        }
-
-        return null;
-    }
 }
@@ -1,26 +1,49 @@
 package jin.databind;
 
-import jin.annotations.JsonGetter;
-import jin.annotations.Json;
-import jin.annotations.JsonTypeInfo;
-import jin.annotations.JsonValue;
 import jin.io.JsonWriter;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JsonBaseSerializer extends JsonSerializer<Object> {
 
+    private final Map<Class<?>, JsonSerializer> serializers = new ConcurrentHashMap<>();
+
+    private final boolean compiled;
+
+    public JsonBaseSerializer() {
+        this(false);
+    }
+
+    public JsonBaseSerializer(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    // registrations only apply to this instance and to values of exactly the registered class, not its subclasses
+    public <T> JsonBaseSerializer register(Class<T> cls, JsonSerializer<? super T> serializer) {
+        serializers.put(cls, serializer);
+
+        return this;
+    }
+
+    public JsonBaseSerializer unregister(Class<?> cls) {
+        serializers.remove(cls);
+
+        return this;
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public void serialize(Object object, JsonWriter writer) throws IOException {
         if (object == null) {
             writer.writeNull();
@@ -30,135 +53,148 @@ public class JsonBaseSerializer extends JsonSerializer<Object> {
 
         Class<?> cls = object.getClass();
 
-        if (cls.isPrimitive()) {
-            serializePrimitive(object, writer);
+        if (!serializers.isEmpty()) {
+            JsonSerializer serializer = serializers.get(cls);
 
-        } else if (cls.getName().equals("java.lang.String")) {
-            writer.writeString(object.toString());
+            if (serializer != null) {
+                serializer.serialize(object, writer);
 
-        } else if (cls.getName().equals("java.lang.Integer")) {
-            writer.writeInt((int) object);
+                return;
+            }
+        }
 
-        } else if (cls.getName().equals("java.lang.Short")) {
-            writer.writeInt((short) object);
+        switch (ValueType.of(cls)) {
+            case STRING:
+                writer.writeString((String) object);
+                break;
 
-        } else if (cls.getName().equals("java.lang.Byte")) {
-            writer.writeInt((byte) object);
+            case INT:
+                writer.writeInt(((Number) object).intValue());
+                break;
 
-        } else if (cls.getName().equals("java.lang.Boolean")) {
-            writer.writeBoolean((boolean) object);
+            case LONG:
+                writer.writeLong((Long) object);
+                break;
 
-        } else if (cls.getName().equals("java.lang.Long")) {
-                writer.writeLong((long) object);
+            case DOUBLE:
+                writer.writeDouble((Double) object);
+                break;
 
-        } else if (cls.getName().equals("java.lang.Double")) {
-            writer.writeDouble((double) object);
+            case FLOAT:
+                writer.writeFloat((Float) object);
+                break;
 
-        } else if (cls.getName().equals("java.lang.Float")) {
-            writer.writeFloat((float) object);
+            case BOOLEAN:
+                writer.writeBoolean((Boolean) object);
+                break;
 
-        } else if (cls.getName().equals("java.math.BigInteger")) {
-            writer.writeBigInteger((BigInteger) object);
+            case BIG_INTEGER:
+                writer.writeBigInteger((BigInteger) object);
+                break;
 
-        } else if (cls.getName().equals("java.math.BigDecimal")) {
-            writer.writeBigDecimal((BigDecimal) object);
+            case BIG_DECIMAL:
+                writer.writeBigDecimal((BigDecimal) object);
+                break;
 
-        } else if (cls.isArray()) {
-            if (!cls.getComponentType().isPrimitive()) {
-                serializeArray(Object[].class.cast(object), writer);
-            } else {
-                serializeArray(object, writer);
-            }
+            case ARRAY:
+                serializeArray(object, cls.getComponentType(), writer);
+                break;
 
-        } else if (cls.isEnum()) {
-            serializeEnumConstant(object, writer);
+            case ENUM:
+                serializeEnumConstant(object, writer);
+                break;
 
-        } else if (object instanceof Collection) {
-            serializeCollection((Collection) object, writer);
+            case COLLECTION:
+                serializeCollection((Collection) object, writer);
+                break;
 
-        } else if (object instanceof Map) {
-            serializeMap((Map) object, writer);
+            case MAP:
+                serializeMap((Map) object, writer);
+                break;
 
-        } else {
-           serializeObject(object, writer);
+            default:
+                serializePOJO(object, cls, writer);
+                break;
         }
     }
 
-    private void serializeObject(Object object, JsonWriter writer) throws IOException {
-        Class<?> cls = object.getClass();
-
-        writer.writeObjectStart();
+    @SuppressWarnings("unchecked")
+    private void serializePOJO(Object object, Class<?> cls, JsonWriter writer) throws IOException {
+        // generated bindings serialize nested values without the registrations of this instance
+        JsonSerializer generated = serializers.isEmpty() ? GeneratedBindings.serializer(cls) : null;
 
-        boolean isTypeInfoIncluded = includePolymorphicTypeInfo(cls, object, writer);
+        if (generated != null) {
+            generated.serialize(object, writer);
 
-        serializeObjectMembers(object, cls, writer, isTypeInfoIncluded);
+        } else if (compiled) {
+            ObjectSerializer.of(cls).serialize(object, writer, this);
 
-        writer.writeObjectEnd();
+        } else {
+            serializeObject(object, writer);
+        }
     }
 
-    private int serializeObjectMembers(Object object, Class<?> cls, JsonWriter writer, boolean writeComma) throws IOException {
-        int serializedInSuperClass = 0;
+    private void serializeObject(Object object, JsonWriter writer) throws IOException {
+        SerializationPlan plan = SerializationPlan.of(object.getClass());
 
-        Class<?> superClass = cls.getSuperclass();
-        if (superClass != Object.class && superClass != null) {
-            serializedInSuperClass = serializeObjectMembers(superClass.cast(object), superClass, writer, writeComma);
-        }
+        writer.writeObjectStart();
 
-        List<Field> fields = nonIgnorableFields(cls);
-        int length = fields.size();
+        boolean writeComma = includePolymorphicTypeInfo(plan, object, writer);
 
-        if (length > 0) {
-            if (writeComma || serializedInSuperClass > 0) {
+        for (SerializationPlan.Property property : plan.properties) {
+            if (writeComma) {
                 writer.writeComma();
             }
 
-            serializeField(object, fields.get(0), writer);
+            serializeProperty(object, property, writer);
 
-            for (int i = 1; i < length; ++i) {
-                writer.writeComma();
-                serializeField(object, fields.get(i), writer);
-            }
+            writeComma = true;
         }
 
-        return length + serializeMethodsMarkedAsGetters(object, cls.getDeclaredMethods(), writer);
+        writer.writeObjectEnd();
     }
 
     @SuppressWarnings("unchecked")
-    private void serializeField(Object object, Field field, JsonWriter writer) throws IOException {
-        field.setAccessible(true);
+    private void serializeProperty(Object object, SerializationPlan.Property property, JsonWriter writer) throws IOException {
+        PropertyAccessor accessor = property.accessor;
 
-        String fieldName = field.getName();
-        JsonSerializer serializer = this;
+        writer.writeFieldName(property.name);
 
-        if (field.isAnnotationPresent(Json.class)) {
-            Json property = field.getAnnotation(Json.class);
+        try {
+            if (property.serializer != null) {
+                property.serializer.serialize(accessor.get(object), writer);
 
-            if (property.property() != null && !property.property().trim().equals("")) {
-                fieldName = property.property();
+                return;
             }
 
-            if (property.serializeWith() != null && property.serializeWith() != JsonSerializer.class) {
-                Class<? extends JsonSerializer> serializerClass = property.serializeWith();
+            switch (accessor.kind) {
+                case PropertyAccessor.BOOLEAN:
+                    writer.writeBoolean(accessor.getBoolean(object));
+                    break;
 
-                try {
-                    JsonSerializer ser = serializerClass.newInstance();
-                    if (ser != null) {
-                        serializer = ser;
-                    }
+                case PropertyAccessor.INT:
+                    writer.writeInt(accessor.getInt(object));
+                    break;
 
-                } catch (InstantiationException | IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+                case PropertyAccessor.LONG:
+                    writer.writeLong(accessor.getLong(object));
+                    break;
 
-        writer.writeFieldName(fieldName);
+                case PropertyAccessor.FLOAT:
+                    writer.writeFloat(accessor.getFloat(object));
+                    break;
 
-        try {
-            serializer.serialize(field.get(object), writer);
+                case PropertyAccessor.DOUBLE:
+                    writer.writeDouble(accessor.getDouble(object));
+                    break;
+
+                default:
+                    serialize(accessor.get(object), writer);
+                    break;
+            }
 
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        } catch (InvocationTargetException e) {
+            throw readFailure(property.name, object, e);
         }
     }
 
@@ -178,237 +214,218 @@ public class JsonBaseSerializer extends JsonSerializer<Object> {
         writer.writeArrayEnd();
     }
 
-    private void serializeArray(Object array, JsonWriter writer) throws IOException {
+    private void serializeArray(Object array, Class<?> componentType, JsonWriter writer) throws IOException {
+        if (!componentType.isPrimitive()) {
+            serializeArray((Object[]) array, writer);
+
+        } else if (componentType == int.class) {
+            serializeArray((int[]) array, writer);
+
+        } else if (componentType == long.class) {
+            serializeArray((long[]) array, writer);
+
+        } else if (componentType == double.class) {
+            serializeArray((double[]) array, writer);
+
+        } else if (componentType == float.class) {
+            serializeArray((float[]) array, writer);
+
+        } else if (componentType == boolean.class) {
+            serializeArray((boolean[]) array, writer);
+
+        } else if (componentType == short.class) {
+            serializeArray((short[]) array, writer);
+
+        } else if (componentType == byte.class) {
+            serializeArray((byte[]) array, writer);
+
+        } else {
+            serializeArray(array, writer);
+        }
+    }
+
+    private void serializeArray(int[] array, JsonWriter writer) throws IOException {
         writer.writeArrayStart();
 
-        int length = Array.getLength(array);
+        int length = array.length;
         if (length > 0) {
-            serialize(Array.get(array, 0), writer);
+            writer.writeInt(array[0]);
 
             for (int i = 1; i < length; ++i) {
-                writer.writeComma();
-                serialize(Array.get(array, i), writer);
+                writer.writeComma().writeInt(array[i]);
             }
         }
 
         writer.writeArrayEnd();
     }
 
-    private void serializeCollection(Collection collection, JsonWriter writer) throws IOException {
-        serializeArray(collection.toArray(), writer);
-    }
-
-    private void serializeMap(Map map, JsonWriter writer) throws IOException {
-        writer.writeObjectStart();
-
-        Object[] keys = map.keySet().toArray();
-        int length = keys.length;
+    private void serializeArray(long[] array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
+        int length = array.length;
         if (length > 0) {
-            writer.writeFieldName(keys[0].toString());
-            serialize(map.get(keys[0]), writer);
+            writer.writeLong(array[0]);
 
             for (int i = 1; i < length; ++i) {
-                writer.writeComma();
-
-                writer.writeFieldName(keys[i].toString());
-                serialize(map.get(keys[i]), writer);
+                writer.writeComma().writeLong(array[i]);
             }
         }
 
-        writer.writeObjectEnd();
+        writer.writeArrayEnd();
     }
 
-    private void serializeEnumConstant(Object object, JsonWriter writer) throws IOException {
-        Enum en = (Enum) object;
-        String value = object.toString();
-
-        try {
-            Field enumConstant = en.getClass().getField(en.name());
+    private void serializeArray(double[] array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
-            if (enumConstant.isAnnotationPresent(JsonValue.class)) {
-                JsonValue constant = enumConstant.getAnnotation(JsonValue.class);
+        int length = array.length;
+        if (length > 0) {
+            writer.writeDouble(array[0]);
 
-                if (constant != null && !constant.value().trim().equals("")) {
-                    value = constant.value();
-                }
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma().writeDouble(array[i]);
             }
-
-        } catch (NoSuchFieldException e) {
-            e.printStackTrace();
         }
 
-        writer.writeString(value);
-
+        writer.writeArrayEnd();
     }
 
-    @SuppressWarnings("unchecked")
-    private int serializeMethodsMarkedAsGetters(Object object, Method[] methods, JsonWriter writer) throws IOException {
-        int count = 0;
-
-        for (Method method : methods) {
-            method.setAccessible(true);
+    private void serializeArray(float[] array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
-            if (!method.isAnnotationPresent(JsonGetter.class)) {
-                continue;
-            }
+        int length = array.length;
+        if (length > 0) {
+            writer.writeFloat(array[0]);
 
-            JsonGetter getter = method.getAnnotation(JsonGetter.class);
-            if (getter == null) {
-                continue;
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma().writeFloat(array[i]);
             }
+        }
 
-            String fieldName = method.getName();
-            JsonSerializer serializer = this;
+        writer.writeArrayEnd();
+    }
 
-            if (getter.name() != null && !getter.name().trim().equals("")) {
-                fieldName = getter.name();
-            }
+    private void serializeArray(boolean[] array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
-            if (getter.serializeWith() != null && getter.serializeWith() != JsonSerializer.class) {
-                Class<? extends JsonSerializer> serializerClass = getter.serializeWith();
+        int length = array.length;
+        if (length > 0) {
+            writer.writeBoolean(array[0]);
 
-                try {
-                    JsonSerializer ser = serializerClass.newInstance();
-                    if (ser != null) {
-                        serializer = ser;
-                    }
-                } catch (InstantiationException | IllegalAccessException e) {
-                    e.printStackTrace();
-                }
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma().writeBoolean(array[i]);
             }
+        }
 
-            writer.writeComma();
+        writer.writeArrayEnd();
+    }
 
-            writer.writeFieldName(fieldName);
+    private void serializeArray(short[] array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
-            try {
-                serializer.serialize(method.invoke(object), writer);
-                count++;
+        int length = array.length;
+        if (length > 0) {
+            writer.writeInt(array[0]);
 
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma().writeInt(array[i]);
             }
         }
 
-        return count;
+        writer.writeArrayEnd();
     }
 
-    private void serializePrimitive(Object element, JsonWriter writer) throws IOException {
-        switch (element.getClass().getName()) {
-            case "boolean":
-                writer.writeBoolean((boolean) element);
-
-            case "int":
-                writer.writeInt((int) element);
-
-            case "short":
-                writer.writeInt((short) element);
-
-            case "byte":
-                writer.writeInt((byte) element);
-
-            case "long":
-                writer.writeLong((long) element);
-
-            case "double":
-                writer.writeDouble((double) element);
+    private void serializeArray(byte[] array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
-            case "float":
-                writer.writeFloat((float) element);
+        int length = array.length;
+        if (length > 0) {
+            writer.writeInt(array[0]);
 
-            default:
-                break;
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma().writeInt(array[i]);
+            }
         }
+
+        writer.writeArrayEnd();
     }
 
-    private boolean includePolymorphicTypeInfo(Class<?> cls, Object object, JsonWriter writer) throws IOException {
-        Class<?> parentClass = cls;
-        Class<?> superClass = cls;
+    private void serializeArray(Object array, JsonWriter writer) throws IOException {
+        writer.writeArrayStart();
 
-        while (parentClass != Object.class && parentClass != null) {
-            superClass = parentClass;
-            parentClass = parentClass.getSuperclass();
-        }
+        int length = Array.getLength(array);
+        if (length > 0) {
+            serialize(Array.get(array, 0), writer);
 
-        try {
-            if (superClass.isAnnotationPresent(JsonTypeInfo.class)) {
-                JsonTypeInfo typeInfo = superClass.getAnnotation(JsonTypeInfo.class);
-
-                if (typeInfo != null) {
-                    JsonTypeInfo.Id use = typeInfo.use();
-                    String property = typeInfo.property();
-
-                    switch (use) {
-                        case CLASS:
-                            writer.writeField(property, cls.getCanonicalName());
-                            return true;
-
-                        case CUSTOM:
-                            Field field = superClass.getDeclaredField(property);
-                            if (field != null) {
-                                field.setAccessible(true);
-
-                                writer.writeField(property, field.get(object).toString());
-                            }
-                            return true;
-
-                        default:
-                            break;
-                    }
-                }
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma();
+                serialize(Array.get(array, i), writer);
             }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            e.printStackTrace();
         }
 
-        return false;
+        writer.writeArrayEnd();
     }
 
-    private List<Field> nonIgnorableFields(Class<?> cls) {
-        JsonTypeInfo typeInfo = getCustomTypeInfo(cls);
+    private void serializeCollection(Collection collection, JsonWriter writer) throws IOException {
+        serializeArray(collection.toArray(), writer);
+    }
 
-        Field[] fields = cls.getDeclaredFields();
+    private void serializeMap(Map map, JsonWriter writer) throws IOException {
+        writer.writeObjectStart();
 
-        List<Field> list = new ArrayList<>();
+        Object[] keys = map.keySet().toArray();
+        int length = keys.length;
 
-        for (Field field : fields) {
-            if (!isMarkedAsIgnorable(field)) {
-                if (typeInfo == null) {
-                    list.add(field);
+        if (length > 0) {
+            writer.writeFieldName(keys[0].toString());
+            serialize(map.get(keys[0]), writer);
 
-                } else {
-                    if (!field.getName().equals(typeInfo.property())) {
-                        list.add(field);
-                    }
-                }
+            for (int i = 1; i < length; ++i) {
+                writer.writeComma();
+
+                writer.writeFieldName(keys[i].toString());
+                serialize(map.get(keys[i]), writer);
             }
         }
 
-        return list;
+        writer.writeObjectEnd();
     }
 
-    private boolean isMarkedAsIgnorable(Field field) {
-        if (field.isAnnotationPresent(Json.class)) {
-            Json json = field.getAnnotation(Json.class);
+    private void serializeEnumConstant(Object object, JsonWriter writer) throws IOException {
+        Enum en = (Enum) object;
 
-            if (json != null && json.ignore()) {
-                return true;
-            }
+        writer.writeString(SerializationPlan.of(en.getDeclaringClass()).enumValues[en.ordinal()]);
+    }
+
+    private boolean includePolymorphicTypeInfo(SerializationPlan plan, Object object, JsonWriter writer) throws IOException {
+        if (plan.typeInfo == null) {
+            return false;
         }
 
-        return false;
-    }
+        switch (plan.typeInfo) {
+            case CLASS:
+                writer.writeField(plan.typeProperty, plan.typeId);
+                return true;
+
+            case CUSTOM:
+                if (plan.typeField == null) {
+                    return false;
+                }
 
-    private JsonTypeInfo getCustomTypeInfo(Class<?> cls) {
-        if (cls.isAnnotationPresent(JsonTypeInfo.class)) {
-            JsonTypeInfo typeInfo = cls.getAnnotation(JsonTypeInfo.class);
+                try {
+                    writer.writeField(plan.typeProperty, plan.typeField.get(object).toString());
 
-            if (typeInfo.use() == JsonTypeInfo.Id.CUSTOM) {
-                return typeInfo;
-            }
+                } catch (InvocationTargetException e) {
+                    throw readFailure(plan.typeProperty, object, e);
+                }
+                return true;
+
+            default:
+                return false;
         }
+    }
 
-        return null;
+    // the output already holds the name of the property, so serialization can not go on
+    static IOException readFailure(String property, Object object, InvocationTargetException e) {
+        return new IOException("failed to read property '" + property + "' of " + object.getClass().getName(), e.getCause());
     }
 }
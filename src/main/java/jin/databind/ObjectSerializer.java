@@ -0,0 +1,265 @@
+package jin.databind;
+
+import jin.annotations.JsonTypeInfo;
+import jin.io.JsonEscapes;
+import jin.io.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+
+class ObjectSerializer extends JsonSerializer<Object> {
+
+    private static final ClassValue<ObjectSerializer> SERIALIZERS = new ClassValue<ObjectSerializer>() {
+        @Override
+        protected ObjectSerializer computeValue(Class<?> type) {
+            return new ObjectSerializer(SerializationPlan.of(type));
+        }
+    };
+
+    private static final JsonSerializer<Object> VALUES = new JsonBaseSerializer(true);
+
+    private final byte[] typeInfo;
+
+    private final byte[] asciiTypeInfo;
+
+    private final String typeProperty;
+
+    private final PropertyAccessor typeField;
+
+    private final PropertyWriter[] writers;
+
+    private final String[] names;
+
+    private ObjectSerializer(SerializationPlan plan) {
+        String typeInfo = null;
+
+        if (plan.typeInfo == JsonTypeInfo.Id.CLASS) {
+            typeInfo = JsonEscapes.quote(plan.typeProperty) + ":" + JsonEscapes.quote(plan.typeId);
+        } else if (plan.typeInfo == JsonTypeInfo.Id.CUSTOM && plan.typeField != null) {
+            typeInfo = JsonEscapes.quote(plan.typeProperty) + ":";
+        }
+
+        this.typeInfo = typeInfo != null ? utf8(typeInfo) : null;
+        this.asciiTypeInfo = typeInfo != null ? ascii(typeInfo) : null;
+
+        this.typeProperty = plan.typeProperty;
+        this.typeField = plan.typeInfo == JsonTypeInfo.Id.CUSTOM ? plan.typeField : null;
+        this.writers = new PropertyWriter[plan.properties.length];
+        this.names = new String[plan.properties.length];
+
+        boolean comma = typeInfo != null;
+
+        for (int i = 0; i < writers.length; ++i) {
+            SerializationPlan.Property property = plan.properties[i];
+
+            String prefix = (comma ? "," : "") + JsonEscapes.quote(property.name) + ":";
+            comma = true;
+
+            writers[i] = writerFor(prefix, property);
+            names[i] = property.name;
+        }
+    }
+
+    static ObjectSerializer of(Class<?> cls) {
+        return SERIALIZERS.get(cls);
+    }
+
+    @Override
+    public void serialize(Object object, JsonWriter writer) throws IOException {
+        serialize(object, writer, VALUES);
+    }
+
+    // values is the serializer of the properties which have no serializer of their own
+    void serialize(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException {
+        writer.writeObjectStart();
+
+        if (typeInfo != null) {
+            writer.writeRaw(writer.isEscapeNonAscii() ? asciiTypeInfo : typeInfo);
+
+            if (typeField != null) {
+                try {
+                    writer.writeString(typeField.get(object).toString());
+
+                } catch (InvocationTargetException e) {
+                    throw JsonBaseSerializer.readFailure(typeProperty, object, e);
+                }
+            }
+        }
+
+        for (int i = 0; i < writers.length; ++i) {
+            try {
+                writers[i].write(object, writer, values);
+
+            } catch (InvocationTargetException e) {
+                throw JsonBaseSerializer.readFailure(names[i], object, e);
+            }
+        }
+
+        writer.writeObjectEnd();
+    }
+
+    private static byte[] utf8(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // the same bytes JsonWriter produces for str when non-ASCII characters are escaped
+    private static byte[] ascii(String str) {
+        StringBuilder builder = new StringBuilder(str.length());
+
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+
+            if (c < 0x80) {
+                builder.append(c);
+            } else {
+                builder.append(String.format("\\u%04x", (int) c));
+            }
+        }
+
+        return utf8(builder.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PropertyWriter writerFor(String prefix, SerializationPlan.Property property) {
+        PropertyAccessor accessor = property.accessor;
+
+        if (property.serializer != null) {
+            return new ValueWriter(prefix, accessor, property.serializer);
+        }
+
+        switch (accessor.kind) {
+            case PropertyAccessor.BOOLEAN:
+                return new BooleanWriter(prefix, accessor);
+
+            case PropertyAccessor.INT:
+                return new IntWriter(prefix, accessor);
+
+            case PropertyAccessor.LONG:
+                return new LongWriter(prefix, accessor);
+
+            case PropertyAccessor.FLOAT:
+                return new FloatWriter(prefix, accessor);
+
+            case PropertyAccessor.DOUBLE:
+                return new DoubleWriter(prefix, accessor);
+
+            default:
+                if (accessor.type == String.class) {
+                    return new StringWriter(prefix, accessor);
+                }
+
+                return new ValueWriter(prefix, accessor, null);
+        }
+    }
+
+    abstract static class PropertyWriter {
+
+        final byte[] prefix;
+
+        final byte[] asciiPrefix;
+
+        final PropertyAccessor accessor;
+
+        PropertyWriter(String prefix, PropertyAccessor accessor) {
+            this.prefix = utf8(prefix);
+            this.asciiPrefix = ascii(prefix);
+            this.accessor = accessor;
+        }
+
+        byte[] prefix(JsonWriter writer) {
+            return writer.isEscapeNonAscii() ? asciiPrefix : prefix;
+        }
+
+        abstract void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException;
+    }
+
+    static class BooleanWriter extends PropertyWriter {
+
+        BooleanWriter(String prefix, PropertyAccessor accessor) {
+            super(prefix, accessor);
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer)).writeBoolean(accessor.getBoolean(object));
+        }
+    }
+
+    static class IntWriter extends PropertyWriter {
+
+        IntWriter(String prefix, PropertyAccessor accessor) {
+            super(prefix, accessor);
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer)).writeInt(accessor.getInt(object));
+        }
+    }
+
+    static class LongWriter extends PropertyWriter {
+
+        LongWriter(String prefix, PropertyAccessor accessor) {
+            super(prefix, accessor);
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer)).writeLong(accessor.getLong(object));
+        }
+    }
+
+    static class FloatWriter extends PropertyWriter {
+
+        FloatWriter(String prefix, PropertyAccessor accessor) {
+            super(prefix, accessor);
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer)).writeFloat(accessor.getFloat(object));
+        }
+    }
+
+    static class DoubleWriter extends PropertyWriter {
+
+        DoubleWriter(String prefix, PropertyAccessor accessor) {
+            super(prefix, accessor);
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer)).writeDouble(accessor.getDouble(object));
+        }
+    }
+
+    static class StringWriter extends PropertyWriter {
+
+        StringWriter(String prefix, PropertyAccessor accessor) {
+            super(prefix, accessor);
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer)).writeString((String) accessor.get(object));
+        }
+    }
+
+    static class ValueWriter extends PropertyWriter {
+
+        final JsonSerializer<Object> serializer;
+
+        ValueWriter(String prefix, PropertyAccessor accessor, JsonSerializer<Object> serializer) {
+            super(prefix, accessor);
+            this.serializer = serializer;
+        }
+
+        @Override
+        void write(Object object, JsonWriter writer, JsonSerializer<Object> values) throws IOException, InvocationTargetException {
+            writer.writeRaw(prefix(writer));
+
+            (serializer != null ? serializer : values).serialize(accessor.get(object), writer);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package jin.databind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+class PropertyAccessor {
+
+    static final int OBJECT = 0;
+    static final int BOOLEAN = 1;
+    static final int INT = 2;
+    static final int LONG = 3;
+    static final int FLOAT = 4;
+    static final int DOUBLE = 5;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    final Class<?> type;
+
+    final int kind;
+
+    // (Object)Object and (Object,Object)void, boxing primitives
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    // (Object)p and (Object,p)void where p is the primitive type of the property, null for OBJECT
+    private final MethodHandle primitiveGetter;
+    private final MethodHandle primitiveSetter;
+
+    private PropertyAccessor(Class<?> type, MethodHandle getter, MethodHandle setter) {
+        this.type = type;
+        this.kind = kindOf(type);
+
+        this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+        this.setter = setter == null ? null : setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+        this.primitiveGetter = kind == OBJECT ? null : getter.asType(MethodType.methodType(type, Object.class));
+        this.primitiveSetter = kind == OBJECT || setter == null ? null : setter.asType(MethodType.methodType(void.class, Object.class, type));
+    }
+
+    static PropertyAccessor of(Field field) {
+        try {
+            field.setAccessible(true);
+
+            return new PropertyAccessor(field.getType(), LOOKUP.unreflectGetter(field), setter(field));
+
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static PropertyAccessor of(Method method) {
+        try {
+            method.setAccessible(true);
+
+            MethodHandle getter = LOOKUP.unreflect(method);
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+
+            return new PropertyAccessor(method.getReturnType(), getter, null);
+
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Object get(Object object) throws InvocationTargetException {
+        try {
+            return (Object) getter.invokeExact(object);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    boolean getBoolean(Object object) throws InvocationTargetException {
+        try {
+            return (boolean) primitiveGetter.invokeExact(object);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    int getInt(Object object) throws InvocationTargetException {
+        try {
+            return (int) primitiveGetter.invokeExact(object);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    long getLong(Object object) throws InvocationTargetException {
+        try {
+            return (long) primitiveGetter.invokeExact(object);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    float getFloat(Object object) throws InvocationTargetException {
+        try {
+            return (float) primitiveGetter.invokeExact(object);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    double getDouble(Object object) throws InvocationTargetException {
+        try {
+            return (double) primitiveGetter.invokeExact(object);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    void set(Object object, Object value) throws InvocationTargetException {
+        try {
+            setter.invokeExact(object, value);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    void setBoolean(Object object, boolean value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(object, value);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    void setInt(Object object, int value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(object, value);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    void setLong(Object object, long value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(object, value);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    void setFloat(Object object, float value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(object, value);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    void setDouble(Object object, double value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(object, value);
+
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static MethodHandle setter(Field field) throws IllegalAccessException {
+        try {
+            return LOOKUP.unreflectSetter(field);
+
+        } catch (IllegalAccessException e) {
+            // final fields can still be written through the accessible Field itself
+            try {
+                MethodHandle set = LOOKUP.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+
+                return set.bindTo(field).asType(MethodType.methodType(void.class, field.getDeclaringClass(), field.getType()));
+
+            } catch (NoSuchMethodException ex) {
+                throw e;
+            }
+        }
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        }
+
+        if (type == int.class) {
+            return INT;
+        }
+
+        if (type == long.class) {
+            return LONG;
+        }
+
+        if (type == float.class) {
+            return FLOAT;
+        }
+
+        if (type == double.class) {
+            return DOUBLE;
+        }
+
+        return OBJECT;
+    }
+}
@@ -0,0 +1,180 @@
+package jin.databind;
+
+import jin.annotations.Json;
+import jin.annotations.JsonGetter;
+import jin.annotations.JsonTypeInfo;
+import jin.annotations.JsonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+class SerializationPlan {
+
+    private static final ClassValue<SerializationPlan> PLANS = new ClassValue<SerializationPlan>() {
+        @Override
+        protected SerializationPlan computeValue(Class<?> type) {
+            return new SerializationPlan(type);
+        }
+    };
+
+    final JsonTypeInfo.Id typeInfo;
+
+    final String typeProperty;
+
+    final String typeId;
+
+    final PropertyAccessor typeField;
+
+    final Property[] properties;
+
+    final String[] enumValues;
+
+    private SerializationPlan(Class<?> cls) {
+        Class<?> root = rootClass(cls);
+        JsonTypeInfo info = root.getAnnotation(JsonTypeInfo.class);
+
+        this.typeInfo = info == null ? null : info.use();
+        this.typeProperty = info == null ? null : info.property();
+        this.typeId = typeInfo == JsonTypeInfo.Id.CLASS ? cls.getCanonicalName() : null;
+        this.typeField = typeInfo == JsonTypeInfo.Id.CUSTOM ? typeField(root, info.property()) : null;
+
+        List<Property> list = new ArrayList<>();
+
+        if (!cls.isEnum()) {
+            collectProperties(cls, list);
+        }
+
+        this.properties = list.toArray(new Property[list.size()]);
+        this.enumValues = cls.isEnum() ? enumValues(cls) : null;
+    }
+
+    static SerializationPlan of(Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    private static void collectProperties(Class<?> cls, List<Property> list) {
+        Class<?> superClass = cls.getSuperclass();
+        if (superClass != Object.class && superClass != null) {
+            collectProperties(superClass, list);
+        }
+
+        JsonTypeInfo typeInfo = cls.getAnnotation(JsonTypeInfo.class);
+        String customTypeProperty = typeInfo != null && typeInfo.use() == JsonTypeInfo.Id.CUSTOM ? typeInfo.property() : null;
+
+        for (Field field : cls.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || field.getName().equals(customTypeProperty)) {
+                continue;
+            }
+
+            Json json = field.getAnnotation(Json.class);
+
+            if (json != null && json.ignore()) {
+                continue;
+            }
+
+            String name = field.getName();
+            JsonSerializer serializer = null;
+
+            if (json != null) {
+                if (!json.property().trim().equals("")) {
+                    name = json.property();
+                }
+
+                serializer = instantiate(json.serializeWith());
+            }
+
+            list.add(new Property(name, PropertyAccessor.of(field), serializer));
+        }
+
+        for (Method method : cls.getDeclaredMethods()) {
+            JsonGetter getter = method.getAnnotation(JsonGetter.class);
+
+            if (getter == null) {
+                continue;
+            }
+
+            String name = getter.name().trim().equals("") ? method.getName() : getter.name();
+
+            list.add(new Property(name, PropertyAccessor.of(method), instantiate(getter.serializeWith())));
+        }
+    }
+
+    private static JsonSerializer instantiate(Class<? extends JsonSerializer> serializerClass) {
+        if (serializerClass == null || serializerClass == JsonSerializer.class) {
+            return null;
+        }
+
+        try {
+            return serializerClass.newInstance();
+
+        } catch (InstantiationException | IllegalAccessException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private static Class<?> rootClass(Class<?> cls) {
+        Class<?> parentClass = cls;
+        Class<?> superClass = cls;
+
+        while (parentClass != Object.class && parentClass != null) {
+            superClass = parentClass;
+            parentClass = parentClass.getSuperclass();
+        }
+
+        return superClass;
+    }
+
+    private static PropertyAccessor typeField(Class<?> root, String property) {
+        try {
+            return PropertyAccessor.of(root.getDeclaredField(property));
+
+        } catch (NoSuchFieldException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private static String[] enumValues(Class<?> cls) {
+        Object[] constants = cls.getEnumConstants();
+        String[] values = new String[constants.length];
+
+        for (int i = 0; i < constants.length; ++i) {
+            Enum en = (Enum) constants[i];
+            values[i] = en.toString();
+
+            try {
+                JsonValue constant = cls.getField(en.name()).getAnnotation(JsonValue.class);
+
+                if (constant != null && !constant.value().trim().equals("")) {
+                    values[i] = constant.value();
+                }
+
+            } catch (NoSuchFieldException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return values;
+    }
+
+    static class Property {
+
+        final String name;
+
+        final PropertyAccessor accessor;
+
+        final JsonSerializer serializer;
+
+        Property(String name, PropertyAccessor accessor, JsonSerializer serializer) {
+            this.name = name;
+            this.accessor = accessor;
+            this.serializer = serializer;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package jin.databind;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+enum ValueType {
+    STRING,
+    INT,
+    LONG,
+    DOUBLE,
+    FLOAT,
+    BOOLEAN,
+    BIG_INTEGER,
+    BIG_DECIMAL,
+    ARRAY,
+    ENUM,
+    COLLECTION,
+    MAP,
+    OBJECT;
+
+    private static final Map<Class<?>, ValueType> SCALARS = new HashMap<>();
+
+    private static final ClassValue<ValueType> TYPES = new ClassValue<ValueType>() {
+        @Override
+        protected ValueType computeValue(Class<?> type) {
+            ValueType valueType = SCALARS.get(type);
+
+            if (valueType != null) {
+                return valueType;
+            }
+
+            if (type.isArray()) {
+                return ARRAY;
+            }
+
+            if (type.isEnum()) {
+                return ENUM;
+            }
+
+            if (Collection.class.isAssignableFrom(type)) {
+                return COLLECTION;
+            }
+
+            if (Map.class.isAssignableFrom(type)) {
+                return MAP;
+            }
+
+            return OBJECT;
+        }
+    };
+
+    static {
+        SCALARS.put(String.class, STRING);
+        SCALARS.put(int.class, INT);
+        SCALARS.put(Integer.class, INT);
+        SCALARS.put(short.class, INT);
+        SCALARS.put(Short.class, INT);
+        SCALARS.put(byte.class, INT);
+        SCALARS.put(Byte.class, INT);
+        SCALARS.put(long.class, LONG);
+        SCALARS.put(Long.class, LONG);
+        SCALARS.put(double.class, DOUBLE);
+        SCALARS.put(Double.class, DOUBLE);
+        SCALARS.put(float.class, FLOAT);
+        SCALARS.put(Float.class, FLOAT);
+        SCALARS.put(boolean.class, BOOLEAN);
+        SCALARS.put(Boolean.class, BOOLEAN);
+        SCALARS.put(BigInteger.class, BIG_INTEGER);
+        SCALARS.put(BigDecimal.class, BIG_DECIMAL);
+    }
+
+    static ValueType of(Class<?> cls) {
+        return TYPES.get(cls);
+    }
+}
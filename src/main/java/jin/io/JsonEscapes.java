@@ -0,0 +1,66 @@
+package jin.io;
+
+public final class JsonEscapes {
+
+    static final char[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    // 0 for characters written as is, 'u' for a six character unicode escape, anything else is the char following the backslash
+    static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; ++c) {
+            ESCAPES[c] = 'u';
+        }
+
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+    }
+
+    private JsonEscapes() {
+    }
+
+    public static String quote(String str) {
+        StringBuilder builder = new StringBuilder(str.length() + 2);
+
+        quote(builder, str);
+
+        return builder.toString();
+    }
+
+    public static StringBuilder quote(StringBuilder builder, String str) {
+        builder.append('"');
+
+        int length = str.length();
+        int run = 0;
+
+        for (int i = 0; i < length; ++i) {
+            char c = str.charAt(i);
+
+            if (c >= 128 || ESCAPES[c] == 0) {
+                continue;
+            }
+
+            builder.append(str, run, i);
+            run = i + 1;
+
+            byte escape = ESCAPES[c];
+
+            builder.append('\\');
+
+            if (escape == 'u') {
+                builder.append("u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                builder.append((char) escape);
+            }
+        }
+
+        builder.append(str, run, length);
+
+        return builder.append('"');
+    }
+}
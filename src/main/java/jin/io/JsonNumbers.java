@@ -0,0 +1,696 @@
+package jin.io;
+
+import java.math.BigInteger;
+
+/**
+ * Writes numbers as ASCII digits straight into a byte buffer, and converts scanned decimals to doubles.
+ *
+ * Doubles and floats are written with the Schubfach algorithm (R. Giulietti, "The Schubfach way to render doubles"),
+ * which yields the shortest decimal that rounds back to the same value, laid out like Double.toString.
+ *
+ * Decimals are converted with the Eisel-Lemire algorithm (D. Lemire, "Number Parsing at a Gigabyte per Second").
+ */
+final class JsonNumbers {
+
+    static final int MAX_INT_LENGTH = 11;
+
+    static final int MAX_LONG_LENGTH = 20;
+
+    static final int MAX_DOUBLE_LENGTH = 24;
+
+    static final int MAX_FLOAT_LENGTH = 15;
+
+    private static final byte[] DIGIT_TENS = new byte[100];
+
+    private static final byte[] DIGIT_ONES = new byte[100];
+
+    private static final byte[] ZERO = {'0', '.', '0'};
+
+    private static final byte[] NAN = {'N', 'a', 'N'};
+
+    private static final byte[] INFINITY = {'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+
+    private static final byte[] MINUS_INFINITY = {'-', 'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+
+    private static final long[] POW10 = new long[18];
+
+    private static final int D_Q_MIN = -1074;
+
+    private static final long D_C_MIN = 1L << 52;
+
+    private static final long D_C_TINY = 3;
+
+    private static final long D_T_MASK = (1L << 52) - 1;
+
+    private static final int F_Q_MIN = -149;
+
+    private static final int F_C_MIN = 1 << 23;
+
+    private static final int F_C_TINY = 8;
+
+    private static final int F_T_MASK = (1 << 23) - 1;
+
+    private static final int K_MIN = -324;
+
+    private static final int K_MAX = 292;
+
+    private static final int P5_MIN = -342;
+
+    private static final int P5_MAX = 308;
+
+    private static final long INFINITY_BITS = 0x7FFL << 52;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    // g1(k), g0(k): the 126-bit approximation floor(10^-k 2^(125 - flog2pow10(-k))) + 1 split in 63-bit halves
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) << 1];
+
+    // 5^q normalized to 128 bits, truncated for q >= 0 and rounded up for q < 0, as hi and lo 64-bit halves
+    private static final long[] P5 = new long[(P5_MAX - P5_MIN + 1) << 1];
+
+    static {
+        for (int i = 0; i < 100; ++i) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+
+        POW10[0] = 1;
+
+        for (int i = 1; i < POW10.length; ++i) {
+            POW10[i] = 10 * POW10[i - 1];
+        }
+
+        for (int k = K_MIN; k <= K_MAX; ++k) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger g;
+
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                g = r >= 0 ? pow.shiftRight(r) : pow.shiftLeft(-r);
+            } else {
+                g = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+            }
+
+            g = g.add(BigInteger.ONE);
+
+            G[(k - K_MIN) << 1] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) << 1 | 1] = g.longValue() & MASK_63;
+        }
+
+        for (int q = P5_MIN; q <= P5_MAX; ++q) {
+            BigInteger c;
+
+            if (q < 0) {
+                BigInteger pow = BigInteger.valueOf(5).pow(-q);
+                int z = pow.bitLength();
+
+                c = BigInteger.ONE.shiftLeft(q >= -27 ? z + 127 : 2 * z + 128).divide(pow).add(BigInteger.ONE);
+            } else {
+                c = BigInteger.valueOf(5).pow(q);
+            }
+
+            int shift = c.bitLength() - 128;
+            c = shift > 0 ? c.shiftRight(shift) : c.shiftLeft(-shift);
+
+            P5[(q - P5_MIN) << 1] = c.shiftRight(64).longValue();
+            P5[(q - P5_MIN) << 1 | 1] = c.longValue();
+        }
+    }
+
+    private JsonNumbers() {
+    }
+
+    static int writeInt(int value, byte[] buf, int pos) {
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+
+        int end = pos + stringSize(value);
+
+        writeDigits(value, buf, end);
+
+        return end;
+    }
+
+    static int writeLong(long value, byte[] buf, int pos) {
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+
+        int end = pos + stringSize(value);
+        int i = end;
+
+        while (value > Integer.MAX_VALUE) {
+            long q = value / 100;
+            int r = (int) (value - q * 100);
+
+            value = q;
+
+            buf[--i] = DIGIT_ONES[r];
+            buf[--i] = DIGIT_TENS[r];
+        }
+
+        writeDigits((int) value, buf, i);
+
+        return end;
+    }
+
+    static int writeDouble(double v, byte[] buf, int pos) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & D_T_MASK;
+        int bq = (int) (bits >>> 52) & 0x7FF;
+
+        if (bq == 0x7FF) {
+            return copy(t != 0 ? NAN : bits > 0 ? INFINITY : MINUS_INFINITY, buf, pos);
+        }
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            int mq = -D_Q_MIN + 1 - bq;
+            long c = D_C_MIN | t;
+
+            // integers below 2^53 are exact, no rounding interval needed
+            if (0 < mq && mq < 53) {
+                long f = c >> mq;
+
+                if (f << mq == c) {
+                    return doubleChars(f, 0, buf, pos);
+                }
+            }
+
+            return doubleToDecimal(-mq, c, 0, buf, pos);
+        }
+
+        if (t != 0) {
+            return t < D_C_TINY ? doubleToDecimal(D_Q_MIN, 10 * t, -1, buf, pos) : doubleToDecimal(D_Q_MIN, t, 0, buf, pos);
+        }
+
+        return copy(ZERO, buf, pos);
+    }
+
+    static int writeFloat(float v, byte[] buf, int pos) {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & F_T_MASK;
+        int bq = (bits >>> 23) & 0xFF;
+
+        if (bq == 0xFF) {
+            return copy(t != 0 ? NAN : bits > 0 ? INFINITY : MINUS_INFINITY, buf, pos);
+        }
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            int mq = -F_Q_MIN + 1 - bq;
+            int c = F_C_MIN | t;
+
+            if (0 < mq && mq < 24) {
+                int f = c >> mq;
+
+                if (f << mq == c) {
+                    return floatChars(f, 0, buf, pos);
+                }
+            }
+
+            return floatToDecimal(-mq, c, 0, buf, pos);
+        }
+
+        if (t != 0) {
+            return t < F_C_TINY ? floatToDecimal(F_Q_MIN, 10 * t, -1, buf, pos) : floatToDecimal(F_Q_MIN, t, 0, buf, pos);
+        }
+
+        return copy(ZERO, buf, pos);
+    }
+
+    /**
+     * Returns the bits of the double nearest to w 10^q, w being a non-zero unsigned long,
+     * or -1 when the 128-bit approximation is not enough to decide the rounding.
+     */
+    static long toDoubleBits(long w, int q) {
+        if (q < P5_MIN) {
+            return 0;
+        }
+
+        if (q > P5_MAX) {
+            return INFINITY_BITS;
+        }
+
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        int index = (q - P5_MIN) << 1;
+
+        long lo = w * P5[index];
+        long hi = unsignedMultiplyHigh(w, P5[index]);
+
+        if ((hi & 0x1FF) == 0x1FF) {
+            long carry = unsignedMultiplyHigh(w, P5[index + 1]);
+
+            lo += carry;
+
+            if (lo + Long.MIN_VALUE < carry + Long.MIN_VALUE) {
+                hi++;
+            }
+        }
+
+        if (lo == -1 && (q < -27 || q > 55)) {
+            return -1;
+        }
+
+        int upperbit = (int) (hi >>> 63);
+        long mantissa = hi >>> (upperbit + 9);
+        int power2 = (int) ((217706L * q >> 16) + 63) + upperbit - lz + 1023;
+
+        if (power2 <= 0) {
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+
+            return mantissa;
+        }
+
+        // exactly halfway between two doubles, round to even rather than up
+        if (lo + Long.MIN_VALUE <= 1 + Long.MIN_VALUE && q >= -4 && q <= 23 && (mantissa & 3) == 1
+                && mantissa << (upperbit + 9) == hi) {
+            mantissa &= ~1L;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+
+        if (mantissa >= 2L << 52) {
+            mantissa = 1L << 52;
+            power2++;
+        }
+
+        if (power2 >= 0x7FF) {
+            return INFINITY_BITS;
+        }
+
+        return mantissa & D_T_MASK | (long) power2 << 52;
+    }
+
+    private static int doubleToDecimal(int q, long c, int dk, byte[] buf, int pos) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        if (c != D_C_MIN | q == D_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = G[(k - K_MIN) << 1];
+        long g0 = G[(k - K_MIN) << 1 | 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+
+        if (s >= 100) {
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                return doubleChars(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+
+        long t = s + 1;
+
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            return doubleChars(uin ? s : t, k + dk, buf, pos);
+        }
+
+        long cmp = vb - (s + t << 1);
+
+        return doubleChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    private static int floatToDecimal(int q, int c, int dk, byte[] buf, int pos) {
+        int out = c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        if (c != F_C_MIN | q == F_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 33;
+
+        long g = G[(k - K_MIN) << 1] + 1;
+
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        int s = vb >> 2;
+
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+            int tp10 = sp10 + 10;
+
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                return floatChars(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+
+        int t = s + 1;
+
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            return floatChars(uin ? s : t, k + dk, buf, pos);
+        }
+
+        int cmp = vb - (s + t << 1);
+
+        return floatChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    // writes f 10^e, where f has at most 17 digits
+    private static int doubleChars(long f, int e, byte[] buf, int pos) {
+        int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+
+        if (f >= POW10[len]) {
+            len += 1;
+        }
+
+        // scale f to exactly 17 digits, the value is now 0.f 10^e
+        f *= POW10[17 - len];
+        e += len;
+
+        long hm = multiplyHigh(f, 193428131138340668L) >>> 20;
+        int l = (int) (f - 100000000L * hm);
+        int h = (int) (hm * 1441151881L >>> 57);
+        int m = (int) (hm - 100000000 * h);
+
+        if (0 < e && e <= 7) {
+            buf[pos++] = (byte) ('0' + h);
+
+            int y = y(m);
+            int i = 1;
+
+            for (; i < e; ++i) {
+                int t = 10 * y;
+                buf[pos++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            buf[pos++] = '.';
+
+            for (; i <= 8; ++i) {
+                int t = 10 * y;
+                buf[pos++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            return lowDigits(l, buf, pos);
+        }
+
+        if (-3 < e && e <= 0) {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+
+            for (; e < 0; ++e) {
+                buf[pos++] = '0';
+            }
+
+            buf[pos++] = (byte) ('0' + h);
+            pos = write8Digits(m, buf, pos);
+
+            return lowDigits(l, buf, pos);
+        }
+
+        buf[pos++] = (byte) ('0' + h);
+        buf[pos++] = '.';
+        pos = write8Digits(m, buf, pos);
+        pos = lowDigits(l, buf, pos);
+
+        return exponent(e - 1, buf, pos);
+    }
+
+    // writes f 10^e, where f has at most 9 digits
+    private static int floatChars(int f, int e, byte[] buf, int pos) {
+        int len = flog10pow2(Integer.SIZE - Integer.numberOfLeadingZeros(f));
+
+        if (f >= POW10[len]) {
+            len += 1;
+        }
+
+        f *= (int) POW10[9 - len];
+        e += len;
+
+        int h = (int) (f * 1441151881L >>> 57);
+        int l = f - 100000000 * h;
+
+        if (0 < e && e <= 7) {
+            buf[pos++] = (byte) ('0' + h);
+
+            int y = y(l);
+            int i = 1;
+
+            for (; i < e; ++i) {
+                int t = 10 * y;
+                buf[pos++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            buf[pos++] = '.';
+
+            for (; i <= 8; ++i) {
+                int t = 10 * y;
+                buf[pos++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            return removeTrailingZeroes(buf, pos);
+        }
+
+        if (-3 < e && e <= 0) {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+
+            for (; e < 0; ++e) {
+                buf[pos++] = '0';
+            }
+
+            buf[pos++] = (byte) ('0' + h);
+            pos = write8Digits(l, buf, pos);
+
+            return removeTrailingZeroes(buf, pos);
+        }
+
+        buf[pos++] = (byte) ('0' + h);
+        buf[pos++] = '.';
+        pos = write8Digits(l, buf, pos);
+        pos = removeTrailingZeroes(buf, pos);
+
+        return exponent(e - 1, buf, pos);
+    }
+
+    private static int lowDigits(int l, byte[] buf, int pos) {
+        if (l != 0) {
+            pos = write8Digits(l, buf, pos);
+        }
+
+        return removeTrailingZeroes(buf, pos);
+    }
+
+    private static int write8Digits(int m, byte[] buf, int pos) {
+        int y = y(m);
+
+        for (int i = 0; i < 8; ++i) {
+            int t = 10 * y;
+            buf[pos++] = (byte) ('0' + (t >>> 28));
+            y = t & MASK_28;
+        }
+
+        return pos;
+    }
+
+    private static int removeTrailingZeroes(byte[] buf, int pos) {
+        while (buf[pos - 1] == '0') {
+            --pos;
+        }
+
+        // keep one digit after the decimal point
+        if (buf[pos - 1] == '.') {
+            ++pos;
+        }
+
+        return pos;
+    }
+
+    private static int exponent(int e, byte[] buf, int pos) {
+        buf[pos++] = 'E';
+
+        if (e < 0) {
+            buf[pos++] = '-';
+            e = -e;
+        }
+
+        if (e < 10) {
+            buf[pos++] = (byte) ('0' + e);
+
+            return pos;
+        }
+
+        if (e >= 100) {
+            int d = e * 1311 >>> 17;
+            buf[pos++] = (byte) ('0' + d);
+            e -= 100 * d;
+        }
+
+        buf[pos++] = DIGIT_TENS[e];
+        buf[pos++] = DIGIT_ONES[e];
+
+        return pos;
+    }
+
+    // a fixed-point fraction of a / 10^8 with 28 fractional bits, so digits can be peeled off by multiplying by 10
+    private static int y(int a) {
+        return (int) (multiplyHigh((long) (a + 1) << 28, 193428131138340668L) >>> 20) - 1;
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int rop(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    private static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661971961083L + -274743187321L >> 41);
+    }
+
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & MASK_32;
+        long y1 = y >> 32;
+        long y2 = y & MASK_32;
+
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & MASK_32) + x2 * y1;
+        long z0 = t >> 32;
+
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return multiplyHigh(x, y) + (x >> 63 & y) + (y >> 63 & x);
+    }
+
+    private static void writeDigits(int value, byte[] buf, int end) {
+        int i = end;
+
+        while (value >= 100) {
+            int q = value / 100;
+            int r = value - q * 100;
+
+            value = q;
+
+            buf[--i] = DIGIT_ONES[r];
+            buf[--i] = DIGIT_TENS[r];
+        }
+
+        if (value >= 10) {
+            buf[--i] = DIGIT_ONES[value];
+            buf[--i] = DIGIT_TENS[value];
+        } else {
+            buf[--i] = (byte) ('0' + value);
+        }
+    }
+
+    private static int stringSize(int x) {
+        int p = 10;
+
+        for (int i = 1; i < 10; ++i) {
+            if (x < p) {
+                return i;
+            }
+
+            p = 10 * p;
+        }
+
+        return 10;
+    }
+
+    private static int stringSize(long x) {
+        long p = 10;
+
+        for (int i = 1; i < 19; ++i) {
+            if (x < p) {
+                return i;
+            }
+
+            p = 10 * p;
+        }
+
+        return 19;
+    }
+
+    private static int copy(byte[] bytes, byte[] buf, int pos) {
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+
+        return pos + bytes.length;
+    }
+}
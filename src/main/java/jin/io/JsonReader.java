@@ -1,13 +1,14 @@
 package jin.io;
 
-import jin.io.fsm.FSM;
-
 import java.io.*;
-import java.nio.charset.Charset;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
 
 public class JsonReader implements Readable, Closeable {
 
     final char STRING_DELIMITER = '"';
+    final char ESCAPE = '\\';
     final char LEFT_BRACE = '{';
     final char RIGHT_BRACE = '}';
     final char LEFT_BRACKET = '[';
@@ -18,74 +19,308 @@ public class JsonReader implements Readable, Closeable {
     final char F = 'f';
     final char N = 'n';
 
-    private int cursor;
+    static final int BUFFER_SIZE = 8192;
+
+    public static final int DEFAULT_MAX_DEPTH = 1000;
+
+    static final char[] TRUE = {'t', 'r', 'u', 'e'};
+    static final char[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    static final char[] NULL = {'n', 'u', 'l', 'l'};
+
+    static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private TokenType type;
+
+    private int position;
+
+    private String value;
+
+    private char[] text;
 
-    private int lookahead;
+    private int start;
+
+    private int length;
 
     private JsonToken token;
 
     private Reader reader;
 
-    public JsonReader(InputStream in) {
-        cursor = 0;
-        lookahead = -1;
+    private char[] buffer;
+
+    private char[] chars;
+
+    private int pos;
+
+    private int limit;
+
+    private int offset;
+
+    private long mantissa;
+
+    private int exponent;
 
-        InputStreamReader isr = new InputStreamReader(in, Charset.forName("UTF-8"));
-        reader = new BufferedReader(isr);
+    private boolean negative;
+
+    private boolean integral;
+
+    private boolean truncated;
+
+    private int depth;
+
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
+    public JsonReader(InputStream in) {
+        this(new Utf8Reader(in));
     }
 
     public JsonReader(Reader reader) {
-        cursor = 0;
-        lookahead = -1;
-
         this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.chars = new char[64];
     }
 
     public JsonReader(String s) {
-        cursor = 0;
-        lookahead = -1;
+        this(s.toCharArray(), 0, s.length());
+    }
 
-        reader = new StringReader(s);
+    // positions reported by the reader are indexes in the given array
+    public JsonReader(char[] chars, int start, int end) {
+        this.buffer = chars;
+        this.pos = start;
+        this.limit = end;
+        this.chars = new char[64];
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public JsonReader setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+
+        return this;
+    }
+
+    public int currentDepth() {
+        return depth;
     }
 
     public JsonToken currentToken() {
+        if (token == null && type != null) {
+            if (type == TokenType.END_OF_STREAM) {
+                token = new JsonToken(TokenType.END_OF_STREAM);
+            } else {
+                token = new JsonToken(type, currentString(), position);
+            }
+        }
+
         return token;
     }
 
+    public TokenType currentType() {
+        return type;
+    }
+
+    public int currentPosition() {
+        return position;
+    }
+
+    public String currentString() {
+        if (value == null && (type == TokenType.STRING || type == TokenType.NUMBER)) {
+            value = new String(text, start, length);
+        }
+
+        return value;
+    }
+
+    public char[] currentChars() {
+        return text;
+    }
+
+    public int currentCharsStart() {
+        return start;
+    }
+
+    public int currentCharsLength() {
+        return length;
+    }
+
+    public long currentLong() {
+        if (isLong()) {
+            return negative ? -mantissa : mantissa;
+        }
+
+        throw new NumberFormatException("For input string: \"" + currentString() + "\"");
+    }
+
+    public int currentInt() {
+        long value = currentLong();
+
+        if (value != (int) value) {
+            throw new NumberFormatException("For input string: \"" + currentString() + "\"");
+        }
+
+        return (int) value;
+    }
+
+    public double currentDouble() {
+        if (type != TokenType.NUMBER) {
+            throw new NumberFormatException("For input string: \"" + currentString() + "\"");
+        }
+
+        // exact when both the mantissa and the power of ten are exactly representable
+        if (!truncated && mantissa >= 0 && mantissa <= (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+
+            return negative ? -value : value;
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        long bits = JsonNumbers.toDoubleBits(mantissa, exponent);
+
+        // the dropped digits put the value between mantissa and mantissa + 1, both must round the same way
+        if (truncated && bits != -1 && (mantissa == -1 || JsonNumbers.toDoubleBits(mantissa + 1, exponent) != bits)) {
+            bits = -1;
+        }
+
+        if (bits != -1) {
+            double value = Double.longBitsToDouble(bits);
+
+            return negative ? -value : value;
+        }
+
+        return Double.parseDouble(currentString());
+    }
+
+    public float currentFloat() {
+        if (type != TokenType.NUMBER) {
+            throw new NumberFormatException("For input string: \"" + currentString() + "\"");
+        }
+
+        if (!truncated && mantissa >= 0 && mantissa <= (1L << 24) && exponent >= -10 && exponent <= 10) {
+            float value = exponent >= 0 ? mantissa * FLOAT_POWERS_OF_TEN[exponent] : mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+
+            return negative ? -value : value;
+        }
+
+        return Float.parseFloat(currentString());
+    }
+
+    public BigInteger currentBigInteger() {
+        if (isLong()) {
+            return BigInteger.valueOf(currentLong());
+        }
+
+        return new BigInteger(currentString());
+    }
+
+    public BigDecimal currentBigDecimal() {
+        if (type != TokenType.NUMBER) {
+            throw new NumberFormatException("For input string: \"" + currentString() + "\"");
+        }
+
+        return new BigDecimal(text, start, length);
+    }
+
+    public NumberType currentNumberType() {
+        if (type != TokenType.NUMBER) {
+            throw new NumberFormatException("For input string: \"" + currentString() + "\"");
+        }
+
+        if (!integral) {
+            return NumberType.DECIMAL;
+        }
+
+        if (!isLong()) {
+            return NumberType.BIG_INTEGER;
+        }
+
+        long value = currentLong();
+
+        return value == (int) value ? NumberType.INT : NumberType.LONG;
+    }
+
     public JsonToken nextToken() throws IOException, JsonProcessingException {
         readToken();
 
-        return token;
+        return currentToken();
     }
 
     public boolean accept(TokenType type) {
-        return currentToken().getType() != TokenType.END_OF_STREAM && currentToken().getType() == type;
+        return this.type == type && type != TokenType.END_OF_STREAM;
     }
 
     public JsonToken expect(TokenType type) throws IOException, JsonProcessingException {
-        if (currentToken().getType() == TokenType.END_OF_STREAM) {
-            throw new JsonProcessingException("unexpected end of input.");
-        }
+        check(type);
 
-        if (currentToken().getType() != type) {
-            throw new JsonProcessingException("expected " + type.toString() + " at position " + currentToken().getPosition());
-        }
+        JsonToken expected = currentToken();
 
-        try {
-            JsonToken expected = currentToken();
+        readToken();
 
-            token = getNextToken();
+        return expected;
+    }
 
-            return expected;
+    public void consume(TokenType type) throws IOException, JsonProcessingException {
+        check(type);
 
-        } catch (UnrecognizedTokenException e) {
-            throw new JsonProcessingException(e);
-        }
+        readToken();
+    }
+
+    public String expectString() throws IOException, JsonProcessingException {
+        check(TokenType.STRING);
+
+        String value = currentString();
+
+        readToken();
+
+        return value;
+    }
+
+    public long expectLong() throws IOException, JsonProcessingException {
+        check(TokenType.NUMBER);
+
+        long value = currentLong();
+
+        readToken();
+
+        return value;
+    }
+
+    public double expectDouble() throws IOException, JsonProcessingException {
+        check(TokenType.NUMBER);
+
+        double value = currentDouble();
+
+        readToken();
+
+        return value;
+    }
+
+    public float expectFloat() throws IOException, JsonProcessingException {
+        check(TokenType.NUMBER);
+
+        float value = currentFloat();
+
+        readToken();
+
+        return value;
     }
 
     public void readToken() throws IOException, JsonProcessingException {
         try {
-            token = getNextToken();
+            token = null;
+
+            recognizeNextToken();
 
         } catch (UnrecognizedTokenException e) {
             throw new JsonProcessingException(e);
@@ -102,220 +337,498 @@ public class JsonReader implements Readable, Closeable {
         readToken();
     }
 
-    private JsonToken getNextToken() throws IOException, UnrecognizedTokenException {
-        int c = read();
+    public void skipValue() throws IOException, JsonProcessingException {
+        if (type == TokenType.END_OF_STREAM) {
+            throw new JsonProcessingException("unexpected end of input.");
+        }
+
+        if (type == TokenType.OBJECT_START || type == TokenType.ARRAY_START) {
+            skipNestedValue();
+
+            depth--;
+        }
+
+        readToken();
+    }
+
+    private void skipNestedValue() throws IOException, JsonProcessingException {
+        int nested = 1;
+        boolean inString = false;
+
+        while (nested > 0) {
+            if (pos == limit && !fill()) {
+                throw new JsonProcessingException("unexpected end of input.");
+            }
+
+            char c = buffer[pos++];
+
+            if (inString) {
+                if (c == ESCAPE) {
+                    if (pos == limit && !fill()) {
+                        throw new JsonProcessingException("unexpected end of input.");
+                    }
+
+                    pos++;
+
+                } else if (c == STRING_DELIMITER) {
+                    inString = false;
+                }
+
+            } else if (c == STRING_DELIMITER) {
+                inString = true;
+
+            } else if (c == LEFT_BRACE || c == LEFT_BRACKET) {
+                if (depth + nested++ > maxDepth) {
+                    throw new JsonProcessingException(depthExceeded(offset + pos - 1));
+                }
+
+            } else if (c == RIGHT_BRACE || c == RIGHT_BRACKET) {
+                nested--;
+            }
+        }
+    }
+
+    private boolean isLong() {
+        return type == TokenType.NUMBER && integral && !truncated
+                && (mantissa >= 0 || (negative && mantissa == Long.MIN_VALUE));
+    }
+
+    private void check(TokenType type) throws JsonProcessingException {
+        if (this.type == TokenType.END_OF_STREAM) {
+            throw new JsonProcessingException("unexpected end of input.");
+        }
+
+        if (this.type != type) {
+            throw new JsonProcessingException("expected " + type.toString() + " at position " + position);
+        }
+    }
+
+    private void recognizeNextToken() throws IOException, UnrecognizedTokenException {
+        int c = skipWhitespace();
 
         if (c < 0) {
-            return new JsonToken(TokenType.END_OF_STREAM);
+            setToken(TokenType.END_OF_STREAM, null, offset + pos, 0);
+
+            return;
         }
 
         char symbol = (char) c;
 
         switch (symbol) {
             case LEFT_BRACE:
-                return new JsonToken(TokenType.OBJECT_START, "{", ++cursor);
+                enter();
+                setToken(TokenType.OBJECT_START, "{", offset + pos, 1);
+                pos++;
+                return;
 
             case RIGHT_BRACE:
-                return new JsonToken(TokenType.OBJECT_END, "}", ++cursor);
+                depth--;
+                setToken(TokenType.OBJECT_END, "}", offset + pos, 1);
+                pos++;
+                return;
 
             case LEFT_BRACKET:
-                return new JsonToken(TokenType.ARRAY_START, "[", ++cursor);
+                enter();
+                setToken(TokenType.ARRAY_START, "[", offset + pos, 1);
+                pos++;
+                return;
 
             case RIGHT_BRACKET:
-                return new JsonToken(TokenType.ARRAY_END, "]", ++cursor);
+                depth--;
+                setToken(TokenType.ARRAY_END, "]", offset + pos, 1);
+                pos++;
+                return;
 
             case COLON:
-                return new JsonToken(TokenType.COLON, ":", ++cursor);
+                setToken(TokenType.COLON, ":", offset + pos, 1);
+                pos++;
+                return;
 
             case COMMA:
-                return new JsonToken(TokenType.COMMA, ",", ++cursor);
+                setToken(TokenType.COMMA, ",", offset + pos, 1);
+                pos++;
+                return;
 
             case STRING_DELIMITER:
-                return recognizeStringToken();
+                recognizeStringToken();
+                return;
 
             case T:
-                return recognizeTrueToken();
+                recognizeToken(TokenType.TRUE, TRUE, "true");
+                return;
 
             case F:
-                return recognizeFalseToken();
+                recognizeToken(TokenType.FALSE, FALSE, "false");
+                return;
 
             case N:
-                return recognizeNullToken();
+                recognizeToken(TokenType.NULL, NULL, "null");
+                return;
 
             default:
-                if (Character.isDigit(symbol) || symbol == '-' || symbol == '0') {
-                    return recognizeNumberToken(symbol);
+                if (isDigit(symbol) || symbol == '-') {
+                    recognizeNumberToken();
+                    return;
                 }
                 break;
         }
 
-        throw new UnrecognizedTokenException("invalid character " + symbol + " at position " + cursor);
+        throw new UnrecognizedTokenException("invalid character " + symbol + " at position " + (offset + pos));
+    }
+
+    private void enter() throws UnrecognizedTokenException {
+        if (depth >= maxDepth) {
+            throw new UnrecognizedTokenException(depthExceeded(offset + pos));
+        }
+
+        depth++;
+    }
+
+    private String depthExceeded(int position) {
+        return "maximum nesting depth of " + maxDepth + " exceeded at position " + position;
+    }
+
+    private void setToken(TokenType type, String value, int position, int length) {
+        this.type = type;
+        this.value = value;
+        this.position = position;
+        this.text = buffer;
+        this.start = pos;
+        this.length = length;
     }
 
     public boolean ready() throws IOException {
-        return reader.ready();
+        return pos < limit || (reader != null && reader.ready());
     }
 
     @Override
     public void close() throws IOException {
-        reader.close();
+        if (reader != null) {
+            reader.close();
+        }
     }
 
     @Override
     public int read(java.nio.CharBuffer cb) throws IOException {
+        if (pos < limit) {
+            int n = Math.min(cb.remaining(), limit - pos);
+            cb.put(buffer, pos, n);
+            pos += n;
+
+            return n;
+        }
+
+        if (reader == null) {
+            return -1;
+        }
+
         return reader.read(cb);
     }
 
-    private int read() throws IOException {
-        if (lookahead != -1) {
-            int c = lookahead;
-            lookahead = -1;
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+
+        // keep the characters of the token being scanned, they start at pos
+        if (pos > 0) {
+            limit -= pos;
+            System.arraycopy(buffer, pos, buffer, 0, limit);
+            offset += pos;
+            pos = 0;
+        }
+
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int n = reader.read(buffer, limit, buffer.length - limit);
+
+        if (n <= 0) {
+            return false;
+        }
 
-            if (!Character.isWhitespace((char) c)) {
+        limit += n;
+
+        return true;
+    }
+
+    private int skipWhitespace() throws IOException {
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
                 return c;
             }
+
+            pos++;
         }
 
-        int c;
+        return -1;
+    }
+
+    private void recognizeStringToken() throws IOException, UnrecognizedTokenException {
+        int position = offset + pos;
 
-        while ((c = reader.read()) > 0 && Character.isWhitespace((char) c));
+        pos++;
 
-        return c;
-    }
+        int n = scanStringRun(position);
 
-    private JsonToken recognizeStringToken() throws IOException, UnrecognizedTokenException {
-        int position = cursor;
-        int current;
-        char symbol = ' ';
+        if (buffer[pos + n] == STRING_DELIMITER) {
+            setToken(TokenType.STRING, null, position, n);
 
-        String value = "";
+            pos += n + 1;
 
-        while ((current = reader.read()) > 0 && (symbol = (char) current) != STRING_DELIMITER) {
-            value += symbol;
-            cursor++;
+            return;
         }
 
-        if (symbol != STRING_DELIMITER) {
-            throw new UnrecognizedTokenException("unclosed string literal at position " + position);
+        int length = 0;
+
+        while (true) {
+            length = appendChars(length, n);
+
+            if (buffer[pos] == STRING_DELIMITER) {
+                pos++;
+                break;
+            }
+
+            pos++;
+
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, length * 2);
+            }
+
+            chars[length++] = recognizeEscapeSequence(position);
+
+            n = scanStringRun(position);
         }
 
-        return new JsonToken(TokenType.STRING, value, position);
-    }
+        setToken(TokenType.STRING, null, position, length);
 
-    private JsonToken recognizeTrueToken() throws IOException, UnrecognizedTokenException {
-        return recognizeToken(TokenType.TRUE, "true");
+        text = chars;
+        start = 0;
     }
 
-    private JsonToken recognizeFalseToken() throws IOException, UnrecognizedTokenException {
-        return recognizeToken(TokenType.FALSE, "false");
-    }
+    private int scanStringRun(int position) throws IOException, UnrecognizedTokenException {
+        int n = 0;
+
+        while (true) {
+            if (pos + n == limit && !fill()) {
+                throw new UnrecognizedTokenException("unclosed string literal at position " + position);
+            }
+
+            char c = buffer[pos + n];
+
+            if (c == STRING_DELIMITER || c == ESCAPE) {
+                return n;
+            }
 
-    private JsonToken recognizeNullToken() throws IOException, UnrecognizedTokenException {
-        return recognizeToken(TokenType.NULL, "null");
+            n++;
+        }
     }
 
-    private JsonToken recognizeNumberToken(char firstDigit) throws IOException, UnrecognizedTokenException {
-        int position = cursor;
+    private int appendChars(int length, int n) {
+        if (length + n > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(length + n, chars.length * 2));
+        }
 
-        FSM recognizer = buildNumberRecognizer(firstDigit);
+        System.arraycopy(buffer, pos, chars, length, n);
 
-        FSM.Output output = recognizer.run(reader);
+        pos += n;
 
-        if (!output.isRecognized()) {
-            throw new UnrecognizedTokenException("unrecognized JSON token at position " + position);
+        return length + n;
+    }
+
+    private char recognizeEscapeSequence(int position) throws IOException, UnrecognizedTokenException {
+        int c = peek(0);
+
+        if (c < 0) {
+            throw new UnrecognizedTokenException("unclosed string literal at position " + position);
         }
 
-        String number = firstDigit + output.getValue();
+        pos++;
 
-        cursor += number.length();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
 
-        lookahead = output.getLookahead();
+            case 'b':
+                return '\b';
 
-        return new JsonToken(TokenType.NUMBER, number, position);
+            case 'f':
+                return '\f';
+
+            case 'n':
+                return '\n';
+
+            case 'r':
+                return '\r';
+
+            case 't':
+                return '\t';
+
+            case 'u':
+                int value = 0;
+
+                for (int i = 0; i < 4; ++i) {
+                    int digit = hexDigit(peek(0));
+
+                    if (digit < 0) {
+                        throw new UnrecognizedTokenException("invalid unicode escape sequence at position " + (offset + pos));
+                    }
+
+                    value = (value << 4) | digit;
+                    pos++;
+                }
+
+                return (char) value;
+
+            default:
+                throw new UnrecognizedTokenException("invalid escape sequence \\" + (char) c + " at position " + (offset + pos - 1));
+        }
     }
 
-    private JsonToken recognizeToken(TokenType type, String repr) throws IOException, UnrecognizedTokenException {
-        int position = cursor;
-        int length = repr.length();
+    private void recognizeNumberToken() throws IOException, UnrecognizedTokenException {
+        int position = offset + pos;
+        int n = 0;
+        int c = peek(n);
 
-        FSM fsm = new FSM(length + 1);
-        fsm.setInitialState(1);
-        fsm.setFinalStates(length);
+        long m = 0;
+        int digits = 0;
+        int exp = 0;
 
-        for (int i = 0; i <= length - 1; ++i) {
-            fsm.addTransition(i, repr.charAt(i), i + 1);
+        negative = c == '-';
+        integral = true;
+        truncated = false;
+
+        if (negative) {
+            c = peek(++n);
         }
 
-        FSM.Output output = fsm.run(reader);
+        if (c == '0') {
+            c = peek(++n);
+
+        } else if (isDigit(c)) {
+            do {
+                if (digits < 19) {
+                    m = m * 10 + (c - '0');
+                    digits++;
+                } else {
+                    exp++;
+                    truncated = true;
+                }
+
+                c = peek(++n);
+            } while (isDigit(c));
 
-        if (!output.isRecognized()) {
+        } else {
             throw new UnrecognizedTokenException("unrecognized JSON token at position " + position);
         }
 
-        cursor += repr.length();
+        if (c == '.') {
+            integral = false;
+            c = peek(++n);
 
-        lookahead = output.getLookahead();
+            if (!isDigit(c)) {
+                throw new UnrecognizedTokenException("unrecognized JSON token at position " + position);
+            }
 
-        return new JsonToken(type, repr, position);
-    }
+            do {
+                if (m == 0 && c == '0') {
+                    exp--;
+                } else if (digits < 19) {
+                    m = m * 10 + (c - '0');
+                    digits++;
+                    exp--;
+                } else {
+                    truncated = true;
+                }
+
+                c = peek(++n);
+            } while (isDigit(c));
+        }
 
-    private FSM buildNumberRecognizer(char firstDigit) {
-        final int NUMBER = 0;
-        final int INT = 1;
-        final int INT_FRAC = 2;
-        final int INT_EXP = 3;
-        final int START_FRAC = 4;
-        final int START_EXP = 5;
-        final int ZERO = 6;
+        if (c == 'e' || c == 'E') {
+            integral = false;
+            c = peek(++n);
 
-        FSM fsm = new FSM(7);
+            boolean negativeExp = c == '-';
+            if (c == '-' || c == '+') {
+                c = peek(++n);
+            }
 
-        if (firstDigit == '0') {
-            fsm.setInitialState(ZERO);
-        } else {
-            fsm.setInitialState(INT);
+            if (!isDigit(c)) {
+                throw new UnrecognizedTokenException("unrecognized JSON token at position " + position);
+            }
+
+            int e = 0;
+            do {
+                if (e < 100000) {
+                    e = e * 10 + (c - '0');
+                }
+
+                c = peek(++n);
+            } while (isDigit(c));
+
+            exp += negativeExp ? -e : e;
         }
 
-        fsm.setFinalStates(ZERO, INT, INT_FRAC, INT_EXP);
+        mantissa = m;
+        exponent = exp;
 
-        fsm.addTransition(NUMBER, '0', ZERO);
-        fsm.addTransition(NUMBER, '-', INT);
+        setToken(TokenType.NUMBER, null, position, n);
 
-        fsm.addTransition(ZERO, '.', START_FRAC);
-        fsm.addTransition(START_FRAC, '0', INT_FRAC);
-        fsm.addTransition(START_EXP, '0', INT_EXP);
+        pos += n;
+    }
 
-        String digits = "123456789";
-        int digitsLength = digits.length();
+    private void recognizeToken(TokenType type, char[] keyword, String repr) throws IOException, UnrecognizedTokenException {
+        int position = offset + pos;
+        int length = keyword.length;
 
-        for (int i = 0; i < digitsLength; ++i) {
-            char digit = digits.charAt(i);
+        while (limit - pos < length) {
+            if (!fill()) {
+                throw new UnrecognizedTokenException("unrecognized JSON token at position " + position);
+            }
+        }
 
-            fsm.addTransition(NUMBER, digit, INT);
+        for (int i = 1; i < length; ++i) {
+            if (buffer[pos + i] != keyword[i]) {
+                throw new UnrecognizedTokenException("unrecognized JSON token at position " + position);
+            }
+        }
 
-            fsm.addTransition(INT, digit, INT);
-            fsm.addTransition(INT, '0', INT);
+        setToken(type, repr, position, length);
 
-            fsm.addTransition(START_FRAC, digit, INT_FRAC);
-            fsm.addTransition(INT_FRAC, digit, INT_FRAC);
-            fsm.addTransition(INT_FRAC, '0', INT_FRAC);
+        pos += length;
+    }
 
-            fsm.addTransition(START_EXP, digit, INT_EXP);
-            fsm.addTransition(INT_EXP, digit, INT_EXP);
-            fsm.addTransition(INT_EXP, '0', INT_EXP);
+    private int peek(int n) throws IOException {
+        if (pos + n < limit || fill()) {
+            return buffer[pos + n];
         }
 
-        fsm.addTransition(INT, '.', START_FRAC);
+        return -1;
+    }
+
+    private static int hexDigit(int c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
 
-        fsm.addTransition(INT, 'e', START_EXP);
-        fsm.addTransition(INT, 'E', START_EXP);
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
 
-        fsm.addTransition(INT_FRAC, 'e', START_EXP);
-        fsm.addTransition(INT_FRAC, 'E', START_EXP);
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
 
-        fsm.addTransition(START_EXP, '+', START_EXP);
-        fsm.addTransition(START_EXP, '-', START_EXP);
+        return -1;
+    }
 
-        return fsm;
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -4,133 +4,437 @@ import jin.tree.JsonNode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.charset.Charset;
 
-public class JsonWriter extends OutputStreamWriter {
+public class JsonWriter extends Writer {
 
-    final String OBJECT_START = "{";
-    final String OBJECT_END = "}";
-    final String ARRAY_START = "[";
-    final String ARRAY_END = "]";
-    final String COLON = ":";
-    final String COMMA = ",";
-    final String NULL = "null";
+    final byte OBJECT_START = '{';
+    final byte OBJECT_END = '}';
+    final byte ARRAY_START = '[';
+    final byte ARRAY_END = ']';
+    final byte COLON = ':';
+    final byte COMMA = ',';
+    final byte QUOTE = '"';
+
+    static final int BUFFER_SIZE = 8192;
+
+    static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    static final byte[] MIN_INT = {'-', '2', '1', '4', '7', '4', '8', '3', '6', '4', '8'};
+    static final byte[] MIN_LONG = {'-', '9', '2', '2', '3', '3', '7', '2', '0', '3', '6', '8', '5', '4', '7', '7', '5', '8', '0', '8'};
+
+    private OutputStream out;
+
+    private byte[] buffer;
+
+    private int count;
+
+    private char[] chars;
+
+    private boolean escapeNonAscii;
 
     public JsonWriter(OutputStream out) throws UnsupportedEncodingException {
-        super(out, Charset.forName("UTF-8"));
+        this.out = out;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.chars = new char[BUFFER_SIZE / 4];
+    }
+
+    public boolean isEscapeNonAscii() {
+        return escapeNonAscii;
+    }
+
+    public JsonWriter setEscapeNonAscii(boolean escapeNonAscii) {
+        this.escapeNonAscii = escapeNonAscii;
+
+        return this;
     }
 
     public JsonWriter writeObjectStart() throws IOException {
-        return writeToken(OBJECT_START);
+        return writeByte(OBJECT_START);
     }
 
     public JsonWriter writeObjectEnd() throws IOException {
-        return writeToken(OBJECT_END);
+        return writeByte(OBJECT_END);
     }
 
     public JsonWriter writeArrayStart() throws IOException {
-        return writeToken(ARRAY_START);
+        return writeByte(ARRAY_START);
     }
 
     public JsonWriter writeArrayEnd() throws IOException {
-        return writeToken(ARRAY_END);
+        return writeByte(ARRAY_END);
     }
 
     public JsonWriter writeFieldName(String name) throws IOException {
-        return writeToken(quote(name) + COLON);
+        writeQuoted(name);
+
+        return writeByte(COLON);
     }
 
     public JsonWriter writeField(String name, String value) throws IOException {
-        return writeToken(quote(name) + COLON + quote(value));
+        return writeFieldName(name).writeString(value);
     }
 
     public JsonWriter writeField(String name, int value) throws IOException {
-        return writeToken(quote(name) + COLON + String.valueOf(value));
+        return writeFieldName(name).writeInt(value);
     }
 
     public JsonWriter writeField(String name, long value) throws IOException {
-        return writeToken(quote(name) + COLON + String.valueOf(value));
+        return writeFieldName(name).writeLong(value);
     }
 
     public JsonWriter writeField(String name, double value) throws IOException {
-        return writeToken(quote(name) + COLON + String.valueOf(value));
+        return writeFieldName(name).writeDouble(value);
     }
 
     public JsonWriter writeField(String name, float value) throws IOException {
-        return writeToken(quote(name) + COLON + String.valueOf(value));
+        return writeFieldName(name).writeFloat(value);
     }
 
     public JsonWriter writeField(String name, boolean value) throws IOException {
-        return writeToken(quote(name) + COLON + String.valueOf(value));
+        return writeFieldName(name).writeBoolean(value);
     }
 
     public JsonWriter writeField(String name, BigInteger value) throws IOException {
-        return writeToken(quote(name) + COLON + value.toString());
+        return writeFieldName(name).writeBigInteger(value);
     }
 
     public JsonWriter writeField(String name, BigDecimal value) throws IOException {
-        return writeToken(quote(name) + COLON + value.toString());
+        return writeFieldName(name).writeBigDecimal(value);
     }
 
     public JsonWriter writeString(String str) throws IOException {
-        return writeToken(quote(str));
+        if (str == null) {
+            return writeNull();
+        }
+
+        writeQuoted(str);
+
+        return this;
     }
 
     public JsonWriter writeInt(int integer) throws IOException {
-        return writeToken(String.valueOf(integer));
+        if (integer == Integer.MIN_VALUE) {
+            return writeBytes(MIN_INT);
+        }
+
+        ensureCapacity(JsonNumbers.MAX_INT_LENGTH);
+
+        count = JsonNumbers.writeInt(integer, buffer, count);
+
+        return this;
     }
 
     public JsonWriter writeLong(long l) throws IOException {
-        return writeToken(String.valueOf(l));
+        if (l == Long.MIN_VALUE) {
+            return writeBytes(MIN_LONG);
+        }
+
+        ensureCapacity(JsonNumbers.MAX_LONG_LENGTH);
+
+        count = JsonNumbers.writeLong(l, buffer, count);
+
+        return this;
     }
 
     public JsonWriter writeDouble(double d) throws IOException {
-        return writeToken(String.valueOf(d));
+        ensureCapacity(JsonNumbers.MAX_DOUBLE_LENGTH);
+
+        count = JsonNumbers.writeDouble(d, buffer, count);
+
+        return this;
     }
 
     public JsonWriter writeFloat(float f) throws IOException {
-        return writeToken(String.valueOf(f));
+        ensureCapacity(JsonNumbers.MAX_FLOAT_LENGTH);
+
+        count = JsonNumbers.writeFloat(f, buffer, count);
+
+        return this;
     }
 
     public JsonWriter writeBoolean(boolean b) throws IOException {
-        return writeToken(String.valueOf(b));
+        return writeBytes(b ? TRUE : FALSE);
     }
 
     public JsonWriter writeBigInteger(BigInteger bi) throws IOException {
-        return writeToken(bi.toString());
+        if (bi == null) {
+            return writeNull();
+        }
+
+        return writeAscii(bi.toString());
     }
 
     public JsonWriter writeBigDecimal(BigDecimal bd) throws IOException {
-        return writeToken(bd.toString());
+        if (bd == null) {
+            return writeNull();
+        }
+
+        return writeAscii(bd.toString());
     }
 
     public JsonWriter writeNull() throws IOException {
-        return writeToken(NULL);
+        return writeBytes(NULL);
     }
 
     public JsonWriter writeComma() throws IOException {
-        return writeToken(COMMA);
+        return writeByte(COMMA);
     }
 
     public JsonWriter writeRaw(String raw) throws IOException {
-        return writeToken(raw);
+        write(raw, 0, raw.length());
+
+        return this;
+    }
+
+    public JsonWriter writeRaw(byte[] utf8) throws IOException {
+        if (utf8.length > buffer.length) {
+            flushBuffer();
+            out.write(utf8);
+
+            return this;
+        }
+
+        return writeBytes(utf8);
     }
 
     public JsonWriter writeJsonNode(JsonNode node) throws IOException {
-        return writeToken(node.toJsonString());
+        return writeRaw(node.toJsonString());
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        chars[0] = (char) c;
+
+        write(chars, 0, 1);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = Math.min(len, chars.length);
+
+            // never split a surrogate pair between two chunks
+            if (n < len && Character.isHighSurrogate(str.charAt(off + n - 1))) {
+                n--;
+            }
+
+            str.getChars(off, off + n, chars, 0);
+            write(chars, 0, n);
+
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+
+        while (off < end) {
+            if (buffer.length - count < 5) {
+                flushBuffer();
+            }
+
+            // ASCII run, bounded by the space left in the buffer
+            int run = Math.min(end, off + buffer.length - count - 4);
+
+            char c;
+
+            while (off < run && (c = cbuf[off]) < 0x80) {
+                buffer[count++] = (byte) c;
+                off++;
+            }
+
+            if (off == run) {
+                continue;
+            }
+
+            off = encode(cbuf, off, end);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            flush();
+        } finally {
+            out.close();
+            out = null;
+        }
     }
 
-    private JsonWriter writeToken(String token) throws IOException {
-        write(token, 0, token.length());
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureCapacity(int n) throws IOException {
+        if (count + n > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private JsonWriter writeByte(byte b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+
+        buffer[count++] = b;
 
         return this;
     }
 
-    private String quote(String str) {
-        return "\"" + str + "\"";
+    private JsonWriter writeBytes(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+
+        return this;
+    }
+
+    private JsonWriter writeAscii(String str) throws IOException {
+        int length = str.length();
+
+        if (length > buffer.length) {
+            return writeRaw(str);
+        }
+
+        ensureCapacity(length);
+
+        for (int i = 0; i < length; ++i) {
+            buffer[count++] = (byte) str.charAt(i);
+        }
+
+        return this;
+    }
+
+    private void writeQuoted(String str) throws IOException {
+        writeByte(QUOTE);
+
+        int off = 0;
+        int len = str.length();
+
+        while (len > 0) {
+            int n = Math.min(len, chars.length);
+
+            if (n < len && Character.isHighSurrogate(str.charAt(off + n - 1))) {
+                n--;
+            }
+
+            str.getChars(off, off + n, chars, 0);
+            writeEscaped(chars, 0, n);
+
+            off += n;
+            len -= n;
+        }
+
+        writeByte(QUOTE);
+    }
+
+    private void writeEscaped(char[] cbuf, int off, int len) throws IOException {
+        byte[] escapes = JsonEscapes.ESCAPES;
+        int end = off + len;
+
+        while (off < end) {
+            if (buffer.length - count <= 6) {
+                flushBuffer();
+            }
+
+            // run of characters that need no escaping, bounded by the space left in the buffer
+            int run = Math.min(end, off + buffer.length - count - 6);
+
+            char c;
+
+            while (off < run && (c = cbuf[off]) < 0x80 && escapes[c] == 0) {
+                buffer[count++] = (byte) c;
+                off++;
+            }
+
+            if (off == run) {
+                continue;
+            }
+
+            c = cbuf[off];
+
+            if (c >= 0x80) {
+                if (escapeNonAscii) {
+                    writeUnicodeEscape(c);
+                    off++;
+                } else {
+                    off = encode(cbuf, off, end);
+                }
+
+                continue;
+            }
+
+            byte escape = escapes[c];
+
+            if (escape == 'u') {
+                writeUnicodeEscape(c);
+            } else {
+                buffer[count++] = '\\';
+                buffer[count++] = escape;
+            }
+
+            off++;
+        }
+    }
+
+    private void writeUnicodeEscape(char c) {
+        char[] digits = JsonEscapes.HEX_DIGITS;
+
+        buffer[count++] = '\\';
+        buffer[count++] = 'u';
+        buffer[count++] = (byte) digits[c >> 12];
+        buffer[count++] = (byte) digits[(c >> 8) & 0xF];
+        buffer[count++] = (byte) digits[(c >> 4) & 0xF];
+        buffer[count++] = (byte) digits[c & 0xF];
+    }
+
+    private int encode(char[] cbuf, int off, int end) {
+        char c = cbuf[off++];
+
+        if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+
+        } else if (!Character.isSurrogate(c)) {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+
+        } else if (Character.isHighSurrogate(c) && off < end && Character.isLowSurrogate(cbuf[off])) {
+            int codePoint = Character.toCodePoint(c, cbuf[off++]);
+
+            buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+
+        } else {
+            buffer[count++] = '?';
+        }
+
+        return off;
     }
 }
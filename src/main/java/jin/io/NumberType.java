@@ -0,0 +1,8 @@
+package jin.io;
+
+public enum NumberType {
+    INT,
+    LONG,
+    BIG_INTEGER,
+    DECIMAL
+}
@@ -0,0 +1,15 @@
+package jin.io;
+
+public class UncheckedJsonProcessingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedJsonProcessingException(JsonProcessingException innerException) {
+        super(innerException);
+    }
+
+    @Override
+    public JsonProcessingException getCause() {
+        return (JsonProcessingException) super.getCause();
+    }
+}
@@ -0,0 +1,185 @@
+package jin.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+class Utf8Reader extends Reader {
+
+    static final char REPLACEMENT = '\uFFFD';
+
+    private InputStream in;
+
+    private byte[] bytes;
+
+    private int pos;
+
+    private int limit;
+
+    private int pendingLowSurrogate;
+
+    Utf8Reader(InputStream in) {
+        this.in = in;
+        this.bytes = new byte[JsonReader.BUFFER_SIZE];
+        this.pendingLowSurrogate = -1;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = off;
+        int end = off + len;
+
+        if (len > 0 && pendingLowSurrogate >= 0) {
+            cbuf[n++] = (char) pendingLowSurrogate;
+            pendingLowSurrogate = -1;
+        }
+
+        while (n < end) {
+            if (pos == limit && (n > off || !fill())) {
+                break;
+            }
+
+            int b = bytes[pos];
+
+            if (b >= 0) {
+                // ASCII run, which covers every structural character of a document
+                int run = Math.min(limit - pos, end - n);
+                int i = 0;
+
+                while (i < run && (b = bytes[pos + i]) >= 0) {
+                    cbuf[n + i] = (char) b;
+                    i++;
+                }
+
+                pos += i;
+                n += i;
+
+                continue;
+            }
+
+            int length = sequenceLength(b);
+
+            if (length == 0) {
+                cbuf[n++] = REPLACEMENT;
+                pos++;
+
+                continue;
+            }
+
+            if (limit - pos < length) {
+                if (n > off) {
+                    break;
+                }
+
+                while (limit - pos < length && fill());
+
+                if (limit - pos < length) {
+                    cbuf[n++] = REPLACEMENT;
+                    pos++;
+
+                    continue;
+                }
+            }
+
+            int codePoint = decode(b, length);
+
+            if (codePoint < 0) {
+                // skip the lead byte and the continuation bytes that were valid
+                cbuf[n++] = REPLACEMENT;
+                pos += -codePoint;
+
+                continue;
+            }
+
+            pos += length;
+
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                cbuf[n++] = (char) codePoint;
+
+            } else {
+                cbuf[n++] = Character.highSurrogate(codePoint);
+
+                if (n < end) {
+                    cbuf[n++] = Character.lowSurrogate(codePoint);
+                } else {
+                    pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                }
+            }
+        }
+
+        if (n == off && len > 0) {
+            return -1;
+        }
+
+        return n - off;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return pendingLowSurrogate >= 0 || pos < limit || in.available() > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (pos > 0) {
+            limit -= pos;
+            System.arraycopy(bytes, pos, bytes, 0, limit);
+            pos = 0;
+        }
+
+        int n = in.read(bytes, limit, bytes.length - limit);
+
+        if (n <= 0) {
+            return false;
+        }
+
+        limit += n;
+
+        return true;
+    }
+
+    private int decode(int lead, int length) {
+        int codePoint = lead & (0x7F >> length);
+
+        for (int i = 1; i < length; ++i) {
+            int b = bytes[pos + i];
+
+            if ((b & 0xC0) != 0x80) {
+                return -i;
+            }
+
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+
+        switch (length) {
+            case 2:
+                return codePoint < 0x80 ? -1 : codePoint;
+
+            case 3:
+                return codePoint < 0x800 || Character.isSurrogate((char) codePoint) ? -1 : codePoint;
+
+            default:
+                return codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT || codePoint > Character.MAX_CODE_POINT ? -1 : codePoint;
+        }
+    }
+
+    private static int sequenceLength(int lead) {
+        if ((lead & 0xE0) == 0xC0) {
+            return 2;
+        }
+
+        if ((lead & 0xF0) == 0xE0) {
+            return 3;
+        }
+
+        if ((lead & 0xF8) == 0xF0) {
+            return 4;
+        }
+
+        return 0;
+    }
+}
@@ -1,5 +1,8 @@
 package jin.tree;
 
+import jin.io.JsonProcessingException;
+import jin.io.UncheckedJsonProcessingException;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -10,44 +13,53 @@ public class JsonArray extends JsonNode implements Iterable<JsonNode> {
 
     private List<JsonNode> nodes;
 
+    private JsonLazySource source;
+
     public JsonArray() {
         this.nodes = new ArrayList<>();
     }
 
+    // lazy containers only keep where their content starts, it is parsed on first access
+    JsonArray(JsonLazySource source) {
+        this.source = source;
+    }
+
     public void add(JsonNode node) {
-        nodes.add(node);
+        nodes().add(node);
     }
 
     public void add(int index, JsonNode node) {
-        nodes.add(index, node);
+        nodes().add(index, node);
     }
 
+    @Override
     public JsonNode get(int index) {
-        return nodes.get(index);
+        return nodes().get(index);
     }
 
     public JsonNode remove(int index) {
-        return nodes.remove(index);
+        return nodes().remove(index);
     }
 
+    @Override
     public int size() {
-        return nodes.size();
+        return nodes().size();
     }
 
     public boolean isEmpty() {
-        return nodes.isEmpty();
+        return nodes().isEmpty();
     }
 
     public boolean contains(Object o) {
-        return nodes.contains(o);
+        return nodes().contains(o);
     }
 
     public Iterator<JsonNode> iterator() {
-        return nodes.iterator();
+        return nodes().iterator();
     }
 
     public Object[] toArray() {
-        return nodes.toArray();
+        return nodes().toArray();
     }
 
 
@@ -136,7 +148,7 @@ public class JsonArray extends JsonNode implements Iterable<JsonNode> {
         StringBuilder builder = new StringBuilder();
         builder.append("[");
 
-        if (nodes.size() > 0) {
+        if (nodes().size() > 0) {
             for (JsonNode node: nodes) {
                 builder.append(node.toJsonString());
                 builder.append(",");
@@ -149,4 +161,23 @@ public class JsonArray extends JsonNode implements Iterable<JsonNode> {
 
         return builder.toString();
     }
-}
\ No newline at end of file
+
+    private List<JsonNode> nodes() {
+        // the source is kept until loading succeeds, so a malformed container fails on every access
+        if (source != null) {
+            JsonArray loaded = new JsonArray();
+
+            try {
+                source.load(loaded);
+
+            } catch (JsonProcessingException e) {
+                throw new UncheckedJsonProcessingException(e);
+            }
+
+            nodes = loaded.nodes;
+            source = null;
+        }
+
+        return nodes;
+    }
+}
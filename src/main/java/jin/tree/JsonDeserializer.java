@@ -3,12 +3,12 @@ package jin.tree;
 import jin.io.*;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.*;
 
 public class JsonDeserializer {
 
+    private static final int INITIAL_STACK_SIZE = 16;
+
     public JsonDeserializer() {
     }
 
@@ -19,151 +19,161 @@ public class JsonDeserializer {
     }
 
     public JsonNode deserializeObject(JsonReader reader) throws IOException, JsonProcessingException {
-        reader.expect(TokenType.OBJECT_START);
-
-        if (reader.accept(TokenType.OBJECT_END)) {
-            reader.expect(TokenType.OBJECT_END);
-
-            return new JsonObject();
+        if (!reader.accept(TokenType.OBJECT_START)) {
+            reader.consume(TokenType.OBJECT_START);
         }
 
-        HashMap<String, JsonNode> members = deserializeObjectMembers(reader);
-
-        reader.expect(TokenType.OBJECT_END);
-
-        JsonObject object = new JsonObject();
-        object.addAll(members);
-
-        return object;
-
+        return deserializerValue(reader);
     }
 
     public JsonNode deserializeArray(JsonReader reader) throws IOException, JsonProcessingException {
-        reader.expect(TokenType.ARRAY_START);
-
-        JsonArray array = new JsonArray();
+        if (!reader.accept(TokenType.ARRAY_START)) {
+            reader.consume(TokenType.ARRAY_START);
+        }
 
-        while (!reader.accept(TokenType.ARRAY_END)) {
-            array.add(deserializerValue(reader));
+        return deserializerValue(reader);
+    }
 
-            if (reader.accept(TokenType.ARRAY_END)) {
-                break;
+    // containers being filled are kept on an explicit stack, the nesting depth is bounded by the reader
+    private JsonNode deserializerValue(JsonReader reader) throws IOException, JsonProcessingException {
+        JsonNode[] containers = new JsonNode[INITIAL_STACK_SIZE];
+        String[] keys = new String[INITIAL_STACK_SIZE];
+        int depth = 0;
+
+        while (true) {
+            JsonNode node;
+
+            switch (reader.currentType()) {
+                case OBJECT_START:
+                    reader.readToken();
+
+                    if (reader.accept(TokenType.OBJECT_END)) {
+                        reader.readToken();
+                        node = new JsonObject();
+                        break;
+                    }
+
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    containers[depth] = new JsonObject();
+                    keys[depth] = deserializeKey(reader);
+                    depth++;
+                    continue;
+
+                case ARRAY_START:
+                    reader.readToken();
+
+                    if (reader.accept(TokenType.ARRAY_END)) {
+                        reader.readToken();
+                        node = new JsonArray();
+                        break;
+                    }
+
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    containers[depth] = new JsonArray();
+                    depth++;
+                    continue;
+
+                default:
+                    node = deserializeScalarValue(reader);
+                    break;
             }
 
-            reader.expect(TokenType.COMMA);
-        }
+            while (true) {
+                if (depth == 0) {
+                    return node;
+                }
 
-        reader.expect(TokenType.ARRAY_END);
+                JsonNode container = containers[depth - 1];
 
-        return array;
-    }
+                if (container instanceof JsonObject) {
+                    ((JsonObject) container).put(keys[depth - 1], node);
+
+                    if (!reader.accept(TokenType.OBJECT_END)) {
+                        reader.consume(TokenType.COMMA);
+                        keys[depth - 1] = deserializeKey(reader);
+                        break;
+                    }
 
-    private HashMap<String, JsonNode> deserializeObjectMembers(JsonReader reader) throws IOException, JsonProcessingException {
-        LinkedHashMap<String, JsonNode> members = new LinkedHashMap<>();
+                } else {
+                    ((JsonArray) container).add(node);
 
-        JsonPair pair = deserializeField(reader);
+                    if (!reader.accept(TokenType.ARRAY_END)) {
+                        reader.consume(TokenType.COMMA);
 
-        members.put(pair.getKey(), pair.getValue());
+                        if (!reader.accept(TokenType.ARRAY_END)) {
+                            break;
+                        }
+                    }
+                }
 
-        if (!reader.accept(TokenType.OBJECT_END)) {
-            reader.expect(TokenType.COMMA);
+                reader.readToken();
 
-            members.putAll(deserializeObjectMembers(reader));
+                node = container;
+                containers[--depth] = null;
+            }
         }
-
-        return members;
     }
 
-    private JsonPair deserializeField(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken keyToken = reader.expect(TokenType.STRING);
+    private String deserializeKey(JsonReader reader) throws IOException, JsonProcessingException {
+        String key = reader.expectString();
 
-        reader.expect(TokenType.COLON);
+        reader.consume(TokenType.COLON);
 
-        return new JsonPair(keyToken.getValue(), deserializerValue(reader));
+        return key;
     }
 
-    private JsonNode deserializerValue(JsonReader reader) throws IOException, JsonProcessingException {
-        JsonToken token = reader.currentToken();
+    static JsonNode deserializeScalarValue(JsonReader reader) throws IOException, JsonProcessingException {
         JsonNode node;
 
-        switch (token.getType()) {
-            case OBJECT_START:
-                node = deserializeObject(reader);
-                break;
-
-            case ARRAY_START:
-                node = deserializeArray(reader);
-                break;
-
+        switch (reader.currentType()) {
             case STRING:
-                node = new JsonString(token.getValue());
-                reader.readToken();
+                node = new JsonString(reader.currentString());
                 break;
 
             case TRUE:
                 node = new JsonBoolean(true);
-                reader.readToken();
                 break;
 
             case FALSE:
                 node = new JsonBoolean(false);
-                reader.readToken();
                 break;
 
             case NUMBER:
-                String value = token.getValue();
-                if (value.contains(".") || value.contains("e") || value.contains("E")) {
-                    node = deserializeDecimalValue(value);
-
-                } else {
-                    node = deserializeIntValue(value);
-                }
-                reader.readToken();
+                node = deserializeNumberValue(reader);
                 break;
 
             case NULL:
             default:
                 node = new JsonNull();
-                reader.readToken();
                 break;
         }
 
-        return node;
-    }
-
-    private JsonNode deserializeDecimalValue(String value) {
-       return new JsonDecimal(new BigDecimal(value));
-    }
+        reader.readToken();
 
-    private JsonNode deserializeIntValue(String value) {
-        try {
-            return new JsonInt(Integer.parseInt(value));
-        } catch (NumberFormatException e) {
-            try {
-                return new JsonLong(Long.parseLong(value));
-            } catch (NumberFormatException nfe) {
-                return new JsonBigInt(new BigInteger(value));
-            }
-        }
+        return node;
     }
 
-    static class JsonPair {
-
-        String key;
-
-        JsonNode value;
+    private static JsonNode deserializeNumberValue(JsonReader reader) {
+        switch (reader.currentNumberType()) {
+            case INT:
+                return new JsonInt(reader.currentInt());
 
-        JsonPair(String key, JsonNode value) {
-            this.key = key;
-            this.value = value;
-        }
+            case LONG:
+                return new JsonLong(reader.currentLong());
 
-        public String getKey() {
-            return key;
-        }
+            case BIG_INTEGER:
+                return new JsonBigInt(reader.currentBigInteger());
 
-        public JsonNode getValue() {
-            return value;
+            default:
+                return new JsonDecimal(reader.currentBigDecimal());
         }
     }
 }
@@ -0,0 +1,181 @@
+package jin.tree;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Tape stored in direct byte buffers, outside of the Java heap.
+ *
+ * Words are kept in fixed size chunks. Strings never span two chunks, their address is
+ * the index of their chunk in the high bits and their offset in the chunk in the low 32 bits.
+ * The memory is released by {@link #close()}, the tape can not be read afterwards.
+ */
+final class JsonDirectTape extends JsonTape {
+
+    private static final int WORDS_SHIFT = 17;
+
+    private static final int WORDS_PER_CHUNK = 1 << WORDS_SHIFT;
+
+    private static final int BYTES_PER_CHUNK = 1 << 20;
+
+    private static final int INITIAL_CHUNKS = 4;
+
+    private static final Object UNSAFE;
+
+    private static final Method INVOKE_CLEANER;
+
+    private ByteBuffer[] words;
+
+    private int wordChunks;
+
+    private ByteBuffer[] bytes;
+
+    private int byteChunks;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+
+        // Java 9+ frees direct buffers through Unsafe.invokeCleaner, older versions through their cleaner
+        try {
+            Class<?> cls = Class.forName("sun.misc.Unsafe");
+            Field field = cls.getDeclaredField("theUnsafe");
+
+            field.setAccessible(true);
+
+            unsafe = field.get(null);
+            invokeCleaner = cls.getMethod("invokeCleaner", ByteBuffer.class);
+
+        } catch (Exception e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    JsonDirectTape() {
+        this.words = new ByteBuffer[INITIAL_CHUNKS];
+        this.bytes = new ByteBuffer[INITIAL_CHUNKS];
+    }
+
+    @Override
+    long word(int index) {
+        return words()[index >>> WORDS_SHIFT].getLong((index & (WORDS_PER_CHUNK - 1)) << 3);
+    }
+
+    @Override
+    void putWord(int index, long word) {
+        int chunk = index >>> WORDS_SHIFT;
+
+        if (chunk == wordChunks) {
+            if (chunk == words.length) {
+                words = Arrays.copyOf(words, chunk * 2);
+            }
+
+            words[wordChunks++] = allocateChunk(WORDS_PER_CHUNK << 3);
+        }
+
+        words[chunk].putLong((index & (WORDS_PER_CHUNK - 1)) << 3, word);
+    }
+
+    @Override
+    long allocate(int length) {
+        ByteBuffer chunk = byteChunks > 0 ? bytes[byteChunks - 1] : null;
+
+        if (chunk == null || chunk.remaining() < length) {
+            if (byteChunks == bytes.length) {
+                bytes = Arrays.copyOf(bytes, byteChunks * 2);
+            }
+
+            chunk = allocateChunk(Math.max(length, BYTES_PER_CHUNK));
+            bytes[byteChunks++] = chunk;
+        }
+
+        long address = (long) (byteChunks - 1) << 32 | chunk.position();
+
+        chunk.position(chunk.position() + length);
+
+        return address;
+    }
+
+    @Override
+    byte byteAt(long address) {
+        return bytes()[(int) (address >>> 32)].get((int) address);
+    }
+
+    @Override
+    void putByte(long address, byte b) {
+        bytes[(int) (address >>> 32)].put((int) address, b);
+    }
+
+    @Override
+    void close() {
+        if (words == null) {
+            return;
+        }
+
+        ByteBuffer[] chunks = words;
+
+        words = null;
+
+        for (int i = 0; i < wordChunks; ++i) {
+            free(chunks[i]);
+        }
+
+        chunks = bytes;
+
+        bytes = null;
+
+        for (int i = 0; i < byteChunks; ++i) {
+            free(chunks[i]);
+        }
+    }
+
+    private ByteBuffer[] words() {
+        if (words == null) {
+            throw new IllegalStateException("tape is closed");
+        }
+
+        return words;
+    }
+
+    private ByteBuffer[] bytes() {
+        if (bytes == null) {
+            throw new IllegalStateException("tape is closed");
+        }
+
+        return bytes;
+    }
+
+    private static ByteBuffer allocateChunk(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    // when the buffer can not be freed explicitly, it is released once garbage collected
+    private static void free(ByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            }
+
+            Method cleaner = buffer.getClass().getMethod("cleaner");
+
+            cleaner.setAccessible(true);
+
+            Object clean = cleaner.invoke(buffer);
+
+            if (clean != null) {
+                clean.getClass().getMethod("clean").invoke(clean);
+            }
+
+        } catch (Exception e) {
+            // ignored
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package jin.tree;
+
+import java.util.Arrays;
+
+final class JsonHeapTape extends JsonTape {
+
+    private static final int INITIAL_WORDS = 64;
+
+    private static final int INITIAL_BYTES = 256;
+
+    private long[] words;
+
+    private byte[] bytes;
+
+    private int length;
+
+    JsonHeapTape() {
+        this.words = new long[INITIAL_WORDS];
+        this.bytes = new byte[INITIAL_BYTES];
+    }
+
+    @Override
+    long word(int index) {
+        return words[index];
+    }
+
+    @Override
+    void putWord(int index, long word) {
+        if (index == words.length) {
+            words = Arrays.copyOf(words, index * 2);
+        }
+
+        words[index] = word;
+    }
+
+    @Override
+    long allocate(int length) {
+        int required = this.length + length;
+
+        if (required < 0) {
+            throw new OutOfMemoryError("JSON strings exceed the maximum tape size");
+        }
+
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, (int) Math.min(bytes.length * 2L, Integer.MAX_VALUE - 8)));
+        }
+
+        int address = this.length;
+
+        this.length = required;
+
+        return address;
+    }
+
+    @Override
+    byte byteAt(long address) {
+        return bytes[(int) address];
+    }
+
+    @Override
+    void putByte(long address, byte b) {
+        bytes[(int) address] = b;
+    }
+
+    @Override
+    JsonTape trim() {
+        words = Arrays.copyOf(words, size());
+        bytes = Arrays.copyOf(bytes, length);
+
+        return this;
+    }
+}
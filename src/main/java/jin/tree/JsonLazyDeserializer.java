@@ -0,0 +1,81 @@
+package jin.tree;
+
+import jin.io.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Builds trees whose nested objects and arrays are parsed on first access.
+ *
+ * The members of the root value are parsed right away, nested containers only record where
+ * their content starts in the document. Errors inside a nested container which are not caught
+ * by the structural skip are reported by its accessors as an {@link UncheckedJsonProcessingException}.
+ */
+public class JsonLazyDeserializer {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private int maxDepth = JsonReader.DEFAULT_MAX_DEPTH;
+
+    public JsonLazyDeserializer() {
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public JsonLazyDeserializer setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+
+        return this;
+    }
+
+    public JsonNode deserialize(String json) throws IOException, JsonProcessingException {
+        return deserialize(json.toCharArray(), maxDepth);
+    }
+
+    public JsonNode deserialize(Reader reader) throws IOException, JsonProcessingException {
+        return deserialize(new JsonReader(reader).setMaxDepth(maxDepth));
+    }
+
+    // the remaining characters of the reader are buffered, its maximum depth applies to the tree
+    public JsonNode deserialize(JsonReader reader) throws IOException, JsonProcessingException {
+        CharBuffer buffer = CharBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        while (reader.read(buffer) >= 0) {
+            if (!buffer.hasRemaining()) {
+                CharBuffer larger = CharBuffer.allocate(buffer.capacity() * 2);
+
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        return deserialize(Arrays.copyOf(buffer.array(), buffer.position()), reader.getMaxDepth());
+    }
+
+    private JsonNode deserialize(char[] json, int maxDepth) throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader(json, 0, json.length).setMaxDepth(maxDepth);
+
+        reader.readToken();
+
+        switch (reader.currentType()) {
+            case OBJECT_START:
+                JsonObject object = new JsonObject();
+                new JsonLazySource(json, reader.currentPosition(), maxDepth).load(object);
+                return object;
+
+            case ARRAY_START:
+                JsonArray array = new JsonArray();
+                new JsonLazySource(json, reader.currentPosition(), maxDepth).load(array);
+                return array;
+
+            default:
+                return JsonDeserializer.deserializeScalarValue(reader);
+        }
+    }
+}
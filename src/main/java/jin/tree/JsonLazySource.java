@@ -0,0 +1,100 @@
+package jin.tree;
+
+import jin.io.*;
+
+import java.io.IOException;
+
+/**
+ * Location of the content of a lazy {@link JsonObject} or {@link JsonArray} in the document.
+ *
+ * Loading a container parses its members only: scalars are read directly, nested objects and
+ * arrays are skipped structurally and become lazy containers themselves.
+ */
+final class JsonLazySource {
+
+    private final char[] json;
+
+    private final int start;
+
+    private final int maxDepth;
+
+    JsonLazySource(char[] json, int start, int maxDepth) {
+        this.json = json;
+        this.start = start;
+        this.maxDepth = maxDepth;
+    }
+
+    void load(JsonObject object) throws JsonProcessingException {
+        try {
+            JsonReader reader = open(TokenType.OBJECT_START);
+
+            if (reader.accept(TokenType.OBJECT_END)) {
+                return;
+            }
+
+            while (true) {
+                String key = reader.expectString();
+
+                reader.consume(TokenType.COLON);
+
+                object.put(key, deserializeValue(reader));
+
+                if (reader.accept(TokenType.OBJECT_END)) {
+                    return;
+                }
+
+                reader.consume(TokenType.COMMA);
+            }
+
+        } catch (IOException e) {
+            throw new JsonProcessingException(e);
+        }
+    }
+
+    void load(JsonArray array) throws JsonProcessingException {
+        try {
+            JsonReader reader = open(TokenType.ARRAY_START);
+
+            while (!reader.accept(TokenType.ARRAY_END)) {
+                array.add(deserializeValue(reader));
+
+                if (!reader.accept(TokenType.ARRAY_END)) {
+                    reader.consume(TokenType.COMMA);
+                }
+            }
+
+        } catch (IOException e) {
+            throw new JsonProcessingException(e);
+        }
+    }
+
+    private JsonReader open(TokenType type) throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader(json, start, json.length).setMaxDepth(maxDepth);
+
+        reader.readToken();
+        reader.consume(type);
+
+        return reader;
+    }
+
+    private JsonNode deserializeValue(JsonReader reader) throws IOException, JsonProcessingException {
+        JsonNode node;
+
+        switch (reader.currentType()) {
+            case OBJECT_START:
+                node = new JsonObject(new JsonLazySource(json, reader.currentPosition(), maxDepth - reader.currentDepth() + 1));
+                break;
+
+            case ARRAY_START:
+                node = new JsonArray(new JsonLazySource(json, reader.currentPosition(), maxDepth - reader.currentDepth() + 1));
+                break;
+
+            default:
+                return JsonDeserializer.deserializeScalarValue(reader);
+        }
+
+        reader.skipValue();
+
+        return node;
+    }
+}
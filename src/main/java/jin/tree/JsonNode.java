@@ -38,4 +38,16 @@ public abstract class JsonNode {
     public abstract BigDecimal bigDecimalValue();
 
     public abstract String toJsonString();
+
+    public JsonNode get(String key) {
+        return null;
+    }
+
+    public JsonNode get(int index) {
+        return null;
+    }
+
+    public int size() {
+        return 0;
+    }
 }
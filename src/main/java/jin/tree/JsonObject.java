@@ -1,5 +1,9 @@
 package jin.tree;
 
+import jin.io.JsonEscapes;
+import jin.io.JsonProcessingException;
+import jin.io.UncheckedJsonProcessingException;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.HashMap;
@@ -10,10 +14,17 @@ public class JsonObject extends JsonNode {
 
     private HashMap<String, JsonNode> fields;
 
+    private JsonLazySource source;
+
     public JsonObject() {
         this.fields = new LinkedHashMap<>();
     }
 
+    // lazy containers only keep where their content starts, it is parsed on first access
+    JsonObject(JsonLazySource source) {
+        this.source = source;
+    }
+
     public JsonObject add(String key, String value) {
         if (value != null) {
             return add(key, new JsonString(value));
@@ -55,37 +66,43 @@ public class JsonObject extends JsonNode {
     }
 
     public JsonObject add(String key, JsonNode value) {
-        if (this.fields.containsKey(key)) {
-            this.fields.remove(key);
+        if (fields().containsKey(key)) {
+            fields().remove(key);
         }
 
-        this.fields.put(key, value);
+        fields().put(key, value);
 
         return this;
     }
 
+    void put(String key, JsonNode value) {
+        fields().put(key, value);
+    }
+
     public JsonObject addAll(HashMap<String, JsonNode> pairs) {
-        fields.putAll(pairs);
+        fields().putAll(pairs);
 
         return this;
     }
 
     public boolean containsKey(String key) {
-        return fields.containsKey(key);
+        return fields().containsKey(key);
     }
 
+    @Override
     public JsonNode get(String key) {
-        return this.fields.get(key);
+        return fields().get(key);
     }
 
     public JsonObject remove(String key) {
-        this.fields.remove(key);
+        fields().remove(key);
 
         return this;
     }
 
+    @Override
     public int size() {
-        return fields.size();
+        return fields().size();
     }
 
     @Override
@@ -173,9 +190,9 @@ public class JsonObject extends JsonNode {
         StringBuilder builder = new StringBuilder();
         builder.append("{");
 
-        if (fields.size() > 0) {
-            for (Map.Entry<String, JsonNode> entry : fields.entrySet()) {
-                builder.append("\"" + entry.getKey() + "\"");
+        if (fields().size() > 0) {
+            for (Map.Entry<String, JsonNode> entry : fields().entrySet()) {
+                JsonEscapes.quote(builder, entry.getKey());
                 builder.append(":");
                 builder.append(entry.getValue().toJsonString());
                 builder.append(",");
@@ -188,4 +205,23 @@ public class JsonObject extends JsonNode {
 
         return builder.toString();
     }
+
+    private HashMap<String, JsonNode> fields() {
+        // the source is kept until loading succeeds, so a malformed container fails on every access
+        if (source != null) {
+            JsonObject loaded = new JsonObject();
+
+            try {
+                source.load(loaded);
+
+            } catch (JsonProcessingException e) {
+                throw new UncheckedJsonProcessingException(e);
+            }
+
+            fields = loaded.fields;
+            source = null;
+        }
+
+        return fields;
+    }
 }
@@ -1,5 +1,7 @@
 package jin.tree;
 
+import jin.io.JsonEscapes;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -97,7 +99,11 @@ public class JsonString extends JsonNode {
 
     @Override
     public String toJsonString() {
-        return "\"" + value + "\"";
+        if (value == null) {
+            return "null";
+        }
+
+        return JsonEscapes.quote(value);
     }
 }
 
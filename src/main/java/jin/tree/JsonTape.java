@@ -0,0 +1,190 @@
+package jin.tree;
+
+/**
+ * Flat storage of a parsed JSON document.
+ *
+ * Every value takes one 64-bit word on the tape (two for longs), the high byte holds its type and the
+ * remaining bits its payload. Object and array words store the index following their last child and
+ * their number of children, object members are laid out as a key word followed by the value. Strings,
+ * keys, big integers and decimals are stored in a separate byte storage, prefixed with their length,
+ * as ISO-8859-1 when possible and as UTF-16 otherwise; their word holds the address of the string.
+ */
+abstract class JsonTape {
+
+    static final byte OBJECT = '{';
+    static final byte ARRAY = '[';
+    static final byte STRING = '"';
+    static final byte INT = 'i';
+    static final byte LONG = 'l';
+    static final byte BIG_INTEGER = 'b';
+    static final byte DECIMAL = 'd';
+    static final byte TRUE = 't';
+    static final byte FALSE = 'f';
+    static final byte NULL = 'n';
+
+    static final int MAX_COUNT = 0xFFFFFF;
+
+    private static final long PAYLOAD = 0x00FFFFFFFFFFFFFFL;
+
+    private static final int UTF16 = 0x80000000;
+
+    private int size;
+
+    abstract long word(int index);
+
+    // index is either an existing word or the end of the tape
+    abstract void putWord(int index, long word);
+
+    // reserves length contiguous bytes and returns their address
+    abstract long allocate(int length);
+
+    abstract byte byteAt(long address);
+
+    abstract void putByte(long address, byte b);
+
+    JsonTape trim() {
+        return this;
+    }
+
+    void close() {
+    }
+
+    byte type(int index) {
+        return (byte) (word(index) >>> 56);
+    }
+
+    int next(int index) {
+        switch (type(index)) {
+            case OBJECT:
+            case ARRAY:
+                return (int) word(index);
+
+            case LONG:
+                return index + 2;
+
+            default:
+                return index + 1;
+        }
+    }
+
+    int count(int index) {
+        return (int) (word(index) >>> 32) & MAX_COUNT;
+    }
+
+    String string(int index) {
+        long address = word(index) & PAYLOAD;
+        int header = header(address);
+        int count = header & ~UTF16;
+        char[] chars = new char[count];
+
+        address += 4;
+
+        if ((header & UTF16) == 0) {
+            for (int i = 0; i < count; ++i) {
+                chars[i] = (char) (byteAt(address + i) & 0xFF);
+            }
+
+        } else {
+            for (int i = 0; i < count; ++i, address += 2) {
+                chars[i] = (char) ((byteAt(address) & 0xFF) << 8 | byteAt(address + 1) & 0xFF);
+            }
+        }
+
+        return new String(chars);
+    }
+
+    boolean stringEquals(int index, String s) {
+        long address = word(index) & PAYLOAD;
+        int header = header(address);
+        int count = header & ~UTF16;
+
+        if (count != s.length()) {
+            return false;
+        }
+
+        address += 4;
+
+        if ((header & UTF16) == 0) {
+            for (int i = 0; i < count; ++i) {
+                if ((byteAt(address + i) & 0xFF) != s.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        for (int i = 0; i < count; ++i, address += 2) {
+            if (((byteAt(address) & 0xFF) << 8 | byteAt(address + 1) & 0xFF) != s.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    int append(byte type, long payload) {
+        return appendWord((long) type << 56 | payload);
+    }
+
+    void appendLong(long value) {
+        append(LONG, 0L);
+        appendWord(value);
+    }
+
+    void appendString(byte type, char[] chars, int start, int count) {
+        boolean latin1 = true;
+
+        for (int i = start; i < start + count; ++i) {
+            if (chars[i] > 0xFF) {
+                latin1 = false;
+                break;
+            }
+        }
+
+        long required = 4L + (latin1 ? count : count * 2L);
+
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("JSON string exceeds the maximum tape size");
+        }
+
+        long address = allocate((int) required);
+
+        append(type, address);
+
+        int header = latin1 ? count : count | UTF16;
+
+        putByte(address++, (byte) (header >>> 24));
+        putByte(address++, (byte) (header >>> 16));
+        putByte(address++, (byte) (header >>> 8));
+        putByte(address++, (byte) header);
+
+        for (int i = start; i < start + count; ++i) {
+            char c = chars[i];
+
+            if (!latin1) {
+                putByte(address++, (byte) (c >>> 8));
+            }
+
+            putByte(address++, (byte) c);
+        }
+    }
+
+    void close(int index, int count) {
+        putWord(index, (word(index) & 0xFF00000000000000L) | (long) Math.min(count, MAX_COUNT) << 32 | size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int appendWord(long word) {
+        putWord(size, word);
+
+        return size++;
+    }
+
+    private int header(long address) {
+        return (byteAt(address) & 0xFF) << 24 | (byteAt(address + 1) & 0xFF) << 16 | (byteAt(address + 2) & 0xFF) << 8 | byteAt(address + 3) & 0xFF;
+    }
+}
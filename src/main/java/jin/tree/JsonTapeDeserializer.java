@@ -0,0 +1,173 @@
+package jin.tree;
+
+import jin.io.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class JsonTapeDeserializer {
+
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    public JsonTapeDeserializer() {
+    }
+
+    public JsonTapeNode deserialize(JsonReader reader) throws IOException, JsonProcessingException {
+        return deserialize(reader, new JsonHeapTape());
+    }
+
+    // the returned node must be closed to release the memory of the tape
+    public JsonTapeNode deserializeDirect(JsonReader reader) throws IOException, JsonProcessingException {
+        return deserialize(reader, new JsonDirectTape());
+    }
+
+    private JsonTapeNode deserialize(JsonReader reader, JsonTape tape) throws IOException, JsonProcessingException {
+        boolean done = false;
+
+        try {
+            reader.readToken();
+
+            deserializeValue(reader, tape);
+
+            done = true;
+
+        } finally {
+            if (!done) {
+                tape.close();
+            }
+        }
+
+        return new JsonTapeNode(tape.trim(), 0);
+    }
+
+    // containers being filled are kept on an explicit stack, the nesting depth is bounded by the reader
+    private void deserializeValue(JsonReader reader, JsonTape tape) throws IOException, JsonProcessingException {
+        int[] starts = new int[INITIAL_STACK_SIZE];
+        int[] counts = new int[INITIAL_STACK_SIZE];
+        int depth = 0;
+
+        while (true) {
+            switch (reader.currentType()) {
+                case OBJECT_START:
+                case ARRAY_START:
+                    boolean object = reader.accept(TokenType.OBJECT_START);
+                    int start = tape.append(object ? JsonTape.OBJECT : JsonTape.ARRAY, 0L);
+
+                    reader.readToken();
+
+                    if (reader.accept(object ? TokenType.OBJECT_END : TokenType.ARRAY_END)) {
+                        reader.readToken();
+                        tape.close(start, 0);
+                        break;
+                    }
+
+                    if (depth == starts.length) {
+                        starts = Arrays.copyOf(starts, depth * 2);
+                        counts = Arrays.copyOf(counts, depth * 2);
+                    }
+
+                    starts[depth] = start;
+                    counts[depth] = 0;
+                    depth++;
+
+                    if (object) {
+                        deserializeKey(reader, tape);
+                    }
+                    continue;
+
+                default:
+                    deserializeScalarValue(reader, tape);
+                    break;
+            }
+
+            while (true) {
+                if (depth == 0) {
+                    return;
+                }
+
+                int start = starts[depth - 1];
+
+                counts[depth - 1]++;
+
+                if (tape.type(start) == JsonTape.OBJECT) {
+                    if (!reader.accept(TokenType.OBJECT_END)) {
+                        reader.consume(TokenType.COMMA);
+                        deserializeKey(reader, tape);
+                        break;
+                    }
+
+                } else {
+                    if (!reader.accept(TokenType.ARRAY_END)) {
+                        reader.consume(TokenType.COMMA);
+
+                        if (!reader.accept(TokenType.ARRAY_END)) {
+                            break;
+                        }
+                    }
+                }
+
+                reader.readToken();
+
+                tape.close(start, counts[--depth]);
+            }
+        }
+    }
+
+    private void deserializeKey(JsonReader reader, JsonTape tape) throws IOException, JsonProcessingException {
+        if (!reader.accept(TokenType.STRING)) {
+            reader.consume(TokenType.STRING);
+        }
+
+        tape.appendString(JsonTape.STRING, reader.currentChars(), reader.currentCharsStart(), reader.currentCharsLength());
+
+        reader.readToken();
+        reader.consume(TokenType.COLON);
+    }
+
+    private void deserializeScalarValue(JsonReader reader, JsonTape tape) throws IOException, JsonProcessingException {
+        switch (reader.currentType()) {
+            case STRING:
+                tape.appendString(JsonTape.STRING, reader.currentChars(), reader.currentCharsStart(), reader.currentCharsLength());
+                break;
+
+            case TRUE:
+                tape.append(JsonTape.TRUE, 0L);
+                break;
+
+            case FALSE:
+                tape.append(JsonTape.FALSE, 0L);
+                break;
+
+            case NUMBER:
+                deserializeNumberValue(reader, tape);
+                break;
+
+            case NULL:
+            default:
+                tape.append(JsonTape.NULL, 0L);
+                break;
+        }
+
+        reader.readToken();
+    }
+
+    private void deserializeNumberValue(JsonReader reader, JsonTape tape) {
+        switch (reader.currentNumberType()) {
+            case INT:
+                tape.append(JsonTape.INT, reader.currentInt() & 0xFFFFFFFFL);
+                break;
+
+            case LONG:
+                tape.appendLong(reader.currentLong());
+                break;
+
+            case BIG_INTEGER:
+                tape.appendString(JsonTape.BIG_INTEGER, reader.currentChars(), reader.currentCharsStart(), reader.currentCharsLength());
+                break;
+
+            default:
+                tape.appendString(JsonTape.DECIMAL, reader.currentChars(), reader.currentCharsStart(), reader.currentCharsLength());
+                break;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package jin.tree;
+
+import jin.io.JsonEscapes;
+
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only view of a value stored on the tape built by {@link JsonTapeDeserializer}.
+ *
+ * Views are created on demand by {@link #get(String)}, {@link #get(int)} and {@link #iterator()},
+ * they only hold a reference to the tape and the index of their value.
+ * When an object has duplicate keys, {@link #get(String)} returns the last value.
+ * {@link #close()} releases the tape of the whole document, which is required for tapes stored off-heap.
+ */
+public final class JsonTapeNode extends JsonNode implements Iterable<JsonNode>, Closeable {
+
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    private final JsonTape tape;
+
+    private final int index;
+
+    JsonTapeNode(JsonTape tape, int index) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    @Override
+    public JsonNode get(String key) {
+        if (!isObject()) {
+            return null;
+        }
+
+        int end = tape.next(index);
+        int found = -1;
+
+        for (int i = index + 1; i < end; i = tape.next(i + 1)) {
+            if (tape.stringEquals(i, key)) {
+                found = i + 1;
+            }
+        }
+
+        return found < 0 ? null : new JsonTapeNode(tape, found);
+    }
+
+    @Override
+    public JsonNode get(int index) {
+        if (!isArray()) {
+            return null;
+        }
+
+        if (index >= 0) {
+            int end = tape.next(this.index);
+
+            for (int i = this.index + 1, n = 0; i < end; i = tape.next(i), ++n) {
+                if (n == index) {
+                    return new JsonTapeNode(tape, i);
+                }
+            }
+        }
+
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+
+    @Override
+    public int size() {
+        if (!isObject() && !isArray()) {
+            return 0;
+        }
+
+        int count = tape.count(index);
+
+        if (count < JsonTape.MAX_COUNT) {
+            return count;
+        }
+
+        int end = tape.next(index);
+        boolean object = isObject();
+
+        count = 0;
+
+        for (int i = index + 1; i < end; i = tape.next(object ? i + 1 : i)) {
+            count++;
+        }
+
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Iterator<JsonNode> iterator() {
+        if (!isArray()) {
+            return Collections.emptyIterator();
+        }
+
+        final int end = tape.next(index);
+
+        return new Iterator<JsonNode>() {
+            private int next = index + 1;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public JsonNode next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+
+                JsonNode node = new JsonTapeNode(tape, next);
+
+                next = tape.next(next);
+
+                return node;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        tape.close();
+    }
+
+    @Override
+    public boolean isObject() {
+        return tape.type(index) == JsonTape.OBJECT;
+    }
+
+    @Override
+    public boolean isArray() {
+        return tape.type(index) == JsonTape.ARRAY;
+    }
+
+    @Override
+    public boolean isNull() {
+        return tape.type(index) == JsonTape.NULL;
+    }
+
+    @Override
+    public boolean isString() {
+        return tape.type(index) == JsonTape.STRING;
+    }
+
+    @Override
+    public boolean isBoolean() {
+        byte type = tape.type(index);
+
+        return type == JsonTape.TRUE || type == JsonTape.FALSE;
+    }
+
+    @Override
+    public boolean isInt() {
+        return tape.type(index) == JsonTape.INT;
+    }
+
+    @Override
+    public boolean isLong() {
+        return tape.type(index) == JsonTape.LONG;
+    }
+
+    @Override
+    public boolean isBigInt() {
+        return tape.type(index) == JsonTape.BIG_INTEGER;
+    }
+
+    @Override
+    public boolean isDecimal() {
+        return tape.type(index) == JsonTape.DECIMAL;
+    }
+
+    @Override
+    public String stringValue() {
+        return isString() ? tape.string(index) : null;
+    }
+
+    @Override
+    public boolean booleanValue() {
+        return tape.type(index) == JsonTape.TRUE;
+    }
+
+    @Override
+    public int intValue() {
+        return isInt() ? (int) tape.word(index) : 0;
+    }
+
+    @Override
+    public long longValue() {
+        return isLong() ? tape.word(index + 1) : 0L;
+    }
+
+    @Override
+    public double doubleValue() {
+        return isDecimal() ? Double.parseDouble(tape.string(index)) : 0.0;
+    }
+
+    @Override
+    public BigInteger bigIntValue() {
+        return isBigInt() ? new BigInteger(tape.string(index)) : null;
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+        return isDecimal() ? new BigDecimal(tape.string(index)) : null;
+    }
+
+    // the tape is laid out in document order, so the value is written in a single pass over its words
+    @Override
+    public String toJsonString() {
+        StringBuilder builder = new StringBuilder();
+
+        int[] starts = new int[INITIAL_STACK_SIZE];
+        int[] counts = new int[INITIAL_STACK_SIZE];
+        int depth = 0;
+        int end = tape.next(index);
+        int i = index;
+
+        while (true) {
+            while (depth > 0 && tape.next(starts[depth - 1]) == i) {
+                depth--;
+                builder.append(tape.type(starts[depth]) == JsonTape.OBJECT ? "}" : "]");
+            }
+
+            if (i == end) {
+                return builder.toString();
+            }
+
+            if (depth > 0) {
+                if (counts[depth - 1]++ > 0) {
+                    builder.append(",");
+                }
+
+                if (tape.type(starts[depth - 1]) == JsonTape.OBJECT) {
+                    JsonEscapes.quote(builder, tape.string(i));
+                    builder.append(":");
+                    i++;
+                }
+            }
+
+            switch (tape.type(i)) {
+                case JsonTape.OBJECT:
+                case JsonTape.ARRAY:
+                    if (depth == starts.length) {
+                        starts = Arrays.copyOf(starts, depth * 2);
+                        counts = Arrays.copyOf(counts, depth * 2);
+                    }
+
+                    starts[depth] = i;
+                    counts[depth] = 0;
+                    depth++;
+
+                    builder.append(tape.type(i) == JsonTape.OBJECT ? "{" : "[");
+                    i++;
+                    continue;
+
+                case JsonTape.STRING:
+                    JsonEscapes.quote(builder, tape.string(i));
+                    break;
+
+                case JsonTape.INT:
+                    builder.append((int) tape.word(i));
+                    break;
+
+                case JsonTape.LONG:
+                    builder.append(tape.word(i + 1));
+                    break;
+
+                case JsonTape.BIG_INTEGER:
+                    builder.append(tape.string(i));
+                    break;
+
+                case JsonTape.DECIMAL:
+                    builder.append(new BigDecimal(tape.string(i)));
+                    break;
+
+                case JsonTape.TRUE:
+                    builder.append("true");
+                    break;
+
+                case JsonTape.FALSE:
+                    builder.append("false");
+                    break;
+
+                default:
+                    builder.append("null");
+                    break;
+            }
+
+            i = tape.next(i);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package jin.databind.tests;
 
 import jin.databind.JsonBaseDeserializer;
+import jin.databind.JsonDeserializer;
 import jin.io.JsonReader;
 import jin.io.JsonProcessingException;
 import jin.databind.tests.pojo.*;
 import jin.type.CollectionType;
 import jin.type.MapType;
+import org.joda.time.DateTime;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
@@ -109,6 +113,118 @@ public class JsonBaseDeserializerTest {
         reader.close();
     }
 
+    @Test
+    public void deserializeArrayWithNulls() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
+
+        JsonReader reader = new JsonReader("[1,null,2]");
+        assertEquals(Arrays.asList(1, null, 2), deserializer.deserialize(reader));
+        reader.close();
+
+        reader = new JsonReader("[\"a\",null]");
+        assertEquals(Arrays.asList("a", null), deserializer.deserialize(reader, new CollectionType(ArrayList.class, String.class)));
+        reader.close();
+    }
+
+    @Test
+    public void deserializeNumbersOfUnknownTypeAsNarrowestType() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("[1, 2147483648, 92233720368547758080, 1.5, 1e400]");
+
+        List<Object> expected = Arrays.<Object>asList(1, 2147483648L, new BigInteger("92233720368547758080"), 1.5, new BigDecimal("1e400"));
+
+        assertEquals(expected, new JsonBaseDeserializer().deserialize(reader));
+
+        reader.close();
+    }
+
+    @Test
+    public void deserializeMapWithManyEntries() throws IOException, JsonProcessingException {
+        StringBuilder json = new StringBuilder("{");
+
+        for (int i = 0; i < 50000; ++i) {
+            json.append(i > 0 ? "," : "").append("\"k").append(i).append("\":").append(i);
+        }
+
+        JsonReader reader = new JsonReader(json.append("}").toString());
+        Map<String, Integer> map = new JsonBaseDeserializer().deserialize(reader, new MapType(HashMap.class, String.class, Integer.class));
+        reader.close();
+
+        assertEquals(50000, map.size());
+        assertEquals(49999, (int) map.get("k49999"));
+    }
+
+    @Test
+    public void deserializeDeeplyNestedValueOfUnknownType() throws IOException, JsonProcessingException {
+        StringBuilder json = new StringBuilder();
+
+        for (int i = 0; i < 100000; ++i) {
+            json.append("{\"k\":[");
+        }
+
+        json.append("null");
+
+        for (int i = 0; i < 100000; ++i) {
+            json.append("]}");
+        }
+
+        JsonReader reader = new JsonReader(json.toString()).setMaxDepth(Integer.MAX_VALUE);
+        Object value = new JsonBaseDeserializer().deserialize(reader);
+        reader.close();
+
+        for (int i = 0; i < 100000; ++i) {
+            value = ((List) ((Map) value).get("k")).get(0);
+        }
+
+        assertEquals(null, value);
+    }
+
+    @Test
+    public void deserializeWithRegisteredDeserializer() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer().register(DateTime.class, new DateTimeDeserializer());
+        DateTime dateTime = new DateTime(1989, 4, 8, 15, 15);
+
+        JsonReader reader = new JsonReader("[\"" + dateTime + "\",null]");
+        List<DateTime> dates = deserializer.deserialize(reader, new CollectionType(ArrayList.class, DateTime.class));
+        reader.close();
+
+        assertEquals(2, dates.size());
+        assertEquals(dateTime.getMillis(), dates.get(0).getMillis());
+        assertEquals(null, dates.get(1));
+    }
+
+    @Test
+    public void keepRegisteredDeserializersToTheirInstance() throws IOException, JsonProcessingException {
+        String json = "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"gender\":\"MALE\",\"age\":25,\"friends\":[\"Jane\"]}";
+
+        JsonBaseDeserializer registered = new JsonBaseDeserializer().register(PersonWithEnum.Gender.class, new JsonDeserializer<PersonWithEnum.Gender>() {
+            @Override
+            public PersonWithEnum.Gender deserialize(JsonReader reader) throws IOException, JsonProcessingException {
+                reader.expectString();
+
+                return PersonWithEnum.Gender.FEMALE;
+            }
+        });
+
+        JsonReader reader = new JsonReader(json);
+        PersonWithEnum person = registered.deserialize(reader, PersonWithEnum.class);
+        reader.close();
+
+        assertEquals(PersonWithEnum.Gender.FEMALE, person.getGender());
+        assertEquals(25, person.getAge());
+
+        reader = new JsonReader(json);
+        person = new JsonBaseDeserializer().deserialize(reader, PersonWithEnum.class);
+        reader.close();
+
+        assertEquals(PersonWithEnum.Gender.MALE, person.getGender());
+
+        reader = new JsonReader(json);
+        person = registered.unregister(PersonWithEnum.Gender.class).deserialize(reader, PersonWithEnum.class);
+        reader.close();
+
+        assertEquals(PersonWithEnum.Gender.MALE, person.getGender());
+    }
+
     @Test
     public void deserializeSimpleMap() throws IOException, JsonProcessingException {
         JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
@@ -128,6 +244,54 @@ public class JsonBaseDeserializerTest {
         reader.close();
     }
 
+    @Test
+    public void deserializePrimitiveArrays() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
+        StringBuilder json = new StringBuilder("[");
+        int[] expected = new int[100];
+
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = i * 31 - 1000;
+            json.append(i > 0 ? "," : "").append(expected[i]);
+        }
+
+        JsonReader reader = new JsonReader(json.append("]").toString());
+        int[] ints = deserializer.deserialize(reader, int[].class);
+        reader.close();
+
+        assertEquals(Arrays.toString(expected), Arrays.toString(ints));
+
+        reader = new JsonReader("[12345678901, -1]");
+        long[] longs = deserializer.deserialize(reader, long[].class);
+        reader.close();
+
+        assertEquals("[12345678901, -1]", Arrays.toString(longs));
+
+        reader = new JsonReader("[0.5, -142.25, 1e-5, 3]");
+        double[] doubles = deserializer.deserialize(reader, double[].class);
+        reader.close();
+
+        assertEquals("[0.5, -142.25, 1.0E-5, 3.0]", Arrays.toString(doubles));
+
+        reader = new JsonReader("[0.5, 3]");
+        float[] floats = deserializer.deserialize(reader, float[].class);
+        reader.close();
+
+        assertEquals("[0.5, 3.0]", Arrays.toString(floats));
+
+        reader = new JsonReader("[true, false]");
+        boolean[] booleans = deserializer.deserialize(reader, boolean[].class);
+        reader.close();
+
+        assertEquals("[true, false]", Arrays.toString(booleans));
+
+        reader = new JsonReader("[]");
+        int[] empty = deserializer.deserialize(reader, int[].class);
+        reader.close();
+
+        assertEquals(0, empty.length);
+    }
+
     @Test
     public void deserializeArrayOfArray() throws IOException, JsonProcessingException {
         JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
@@ -277,6 +441,31 @@ public class JsonBaseDeserializerTest {
         reader.close();
     }
 
+    @Test
+    public void deserializeNullPropertiesAndMapValues() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
+        JsonReader reader = new JsonReader("{\"firstName\":null,\"lastName\":\"Doe\",\"age\":25,\"friends\":null}");
+
+        Person person = deserializer.deserialize(reader, Person.class);
+
+        assertEquals(null, person.getFirstName());
+        assertEquals("Doe", person.getLastName());
+        assertEquals(25, person.getAge());
+        assertEquals(null, person.getFriends());
+
+        reader.close();
+
+        reader = new JsonReader("{\"a\":null,\"b\":1}");
+
+        HashMap<String, Integer> map = new HashMap<>();
+        map.put("a", null);
+        map.put("b", 1);
+
+        assertEquals(map, deserializer.deserialize(reader));
+
+        reader.close();
+    }
+
     @Test
     public void deserializeSimplePOJO() throws IOException, JsonProcessingException {
         JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
@@ -292,6 +481,37 @@ public class JsonBaseDeserializerTest {
         reader.close();
     }
 
+    @Test
+    public void deserializePOJOWithUnknownProperties() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
+        JsonReader reader = new JsonReader("{\"id\":{\"a\":[1,{\"b\":\"}]\\\"\"}],\"c\":null},\"firstName\":\"John\",\"lastName\":\"Doe\",\"age\":25,\"tags\":[\"x\",[\"y\"]],\"friends\":[\"Jane\"],\"address\":{\"city\":\"Lome\"}}");
+
+        Person person = deserializer.deserialize(reader, Person.class);
+
+        assertEquals("John", person.getFirstName());
+        assertEquals("Doe", person.getLastName());
+        assertEquals(25, person.getAge());
+        assertEquals(Arrays.asList("Jane"), person.getFriends());
+
+        reader.close();
+    }
+
+    @Test
+    public void deserializePOJOWithPrimitiveFields() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
+        JsonReader reader = new JsonReader("{\"flag\":true,\"count\":-42,\"id\":12345678901,\"ratio\":0.5,\"amount\":142.25}");
+
+        PrimitiveFields fields = deserializer.deserialize(reader, PrimitiveFields.class);
+
+        assertEquals(true, fields.isFlag());
+        assertEquals(-42, fields.getCount());
+        assertEquals(12345678901L, fields.getId());
+        assertEquals(0.5f, fields.getRatio(), 0);
+        assertEquals(142.25, fields.getAmount(), 0);
+
+        reader.close();
+    }
+
     @Test
     public void deserializePOJOWithEnum() throws IOException, JsonProcessingException {
         JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
@@ -374,6 +594,24 @@ public class JsonBaseDeserializerTest {
         reader.close();
     }
 
+    @Test
+    public void deserializeCollectionOfPOJOsWithInheritedFields() throws IOException, JsonProcessingException {
+        JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
+        JsonReader reader = new JsonReader("[{\"firstName\":\"John\",\"age\":25,\"employerName\":\"Pythagoras Afrique\"},{\"employerName\":\"Euclid\",\"friends\":[\"Jane\"],\"firstName\":\"Jane\"}]");
+
+        List<Employee> employees = deserializer.deserialize(reader, new CollectionType(ArrayList.class, Employee.class));
+
+        assertEquals(2, employees.size());
+        assertEquals("John", employees.get(0).getFirstName());
+        assertEquals(25, employees.get(0).getAge());
+        assertEquals("Pythagoras Afrique", employees.get(0).getEmployerName());
+        assertEquals("Jane", employees.get(1).getFirstName());
+        assertEquals(Arrays.asList("Jane"), employees.get(1).getFriends());
+        assertEquals("Euclid", employees.get(1).getEmployerName());
+
+        reader.close();
+    }
+
     @Test
     public void deserializePolymorphicPOJOWithClassTypeInfo() throws IOException, JsonProcessingException {
         JsonBaseDeserializer deserializer = new JsonBaseDeserializer();
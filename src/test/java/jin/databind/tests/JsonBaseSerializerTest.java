@@ -1,19 +1,26 @@
 package jin.databind.tests;
 
+import jin.Json;
 import jin.databind.JsonBaseSerializer;
 import jin.io.JsonWriter;
 import jin.databind.tests.pojo.*;
 import org.joda.time.DateTime;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.*;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
 
 public class JsonBaseSerializerTest {
 
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
     @Test
     public void serializePrimitives() throws IOException {
         assertEquals("\"hello\"", JsonSerializer.serialize("hello"));
@@ -33,6 +40,18 @@ public class JsonBaseSerializerTest {
         assertEquals("[12,34,87,0,33]", JsonSerializer.serialize(array));
     }
 
+    @Test
+    public void serializePrimitiveArrays() throws IOException {
+        assertEquals("[]", JsonSerializer.serialize(new int[0]));
+        assertEquals("[-2147483648,2147483647]", JsonSerializer.serialize(new int[] { Integer.MIN_VALUE, Integer.MAX_VALUE }));
+        assertEquals("[12345678901,-1]", JsonSerializer.serialize(new long[] { 12345678901L, -1 }));
+        assertEquals("[0.5,-142.25,1.0E-5]", JsonSerializer.serialize(new double[] { 0.5, -142.25, 0.00001 }));
+        assertEquals("[0.5,3.0]", JsonSerializer.serialize(new float[] { 0.5f, 3f }));
+        assertEquals("[true,false]", JsonSerializer.serialize(new boolean[] { true, false }));
+        assertEquals("[-7,300]", JsonSerializer.serialize(new short[] { -7, 300 }));
+        assertEquals("[-128,127]", JsonSerializer.serialize(new byte[] { -128, 127 }));
+    }
+
     @Test
     public void serializeSimpleCollection() throws IOException {
         Collection<String> collection = Arrays.asList("one", "two", "three", null, "five", null, "six");
@@ -139,13 +158,118 @@ public class JsonBaseSerializerTest {
         assertEquals("{\"@class\":\"jin.databind.tests.pojo.ArrayField\",\"fields\":[{\"@class\":\"jin.databind.tests.pojo.StringField\",\"value\":\"hello\"},{\"@class\":\"jin.databind.tests.pojo.NumericField\",\"value\":42},{\"@class\":\"jin.databind.tests.pojo.BooleanField\",\"value\":true}]}", JsonSerializer.serialize(arrayField));
     }
 
+    @Test
+    public void serializePOJOWithPrimitiveFields() throws IOException {
+        PrimitiveFields fields = new PrimitiveFields(true, -42, 12345678901L, 0.5f, 142.25);
+
+        assertEquals("{\"flag\":true,\"count\":-42,\"id\":12345678901,\"ratio\":0.5,\"amount\":142.25}", JsonSerializer.serialize(fields));
+    }
+
+    @Test
+    public void serializeSamePOJOTypeRepeatedly() throws IOException {
+        for (int i = 0; i < 3; ++i) {
+            Employee employee = new Employee("John", "Doe", 25 + i, Arrays.asList("Jane"), "Pythagoras Afrique");
+
+            assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"age\":" + (25 + i) + ",\"friends\":[\"Jane\"],\"employerName\":\"Pythagoras Afrique\"}", JsonSerializer.serialize(employee));
+            assertEquals("{\"type\":\"numeric\",\"value\":" + i + "}", JsonSerializer.serialize(new NumericField2(i)));
+        }
+    }
+
+    @Test
+    public void serializeWithCompiledSerializers() throws IOException {
+        List<Object> objects = Arrays.<Object>asList(
+                new Person("John", "Doe", 25, Arrays.asList("Jane", "Jill", "Helen")),
+                new PersonWithDefinedValueForEnumConstant("John", "Doe", PersonWithDefinedValueForEnumConstant.Gender.MALE, 25, Arrays.asList("Jane")),
+                new PersonWithDefinedPropertyNames("John", "Doe", 25, Arrays.asList("Jane", "Jill", "Helen")),
+                new PersonWithCustomSerializerAndDeserializer("John", "Doe", new DateTime(1989, 4, 8, 15, 15), Arrays.asList("Jane")),
+                new Employee("John", "Doe", 25, Arrays.asList("Jane", "Jill", "Helen"), "Pythagoras Afrique"),
+                new StringField2("hello"),
+                new ArrayField(Arrays.asList(new StringField("hello"), new NumericField(42), new BooleanField(true))),
+                new PrimitiveFields(true, -42, 12345678901L, 0.5f, 142.25),
+                Arrays.asList(new NumericField2(1), null, new BooleanField2(false)),
+                new PersonWithNonAsciiPropertyNames("Zo\u00eb", 25)
+        );
+
+        for (Object object : objects) {
+            assertEquals(JsonSerializer.serialize(object), JsonSerializer.serialize(object, true));
+            assertEquals(JsonSerializer.serialize(object, false, true), JsonSerializer.serialize(object, true, true));
+            assertEquals(Json.toJson(object), Json.toJson(object, true));
+        }
+
+        assertEquals("{\"pr\\u00e9nom\":\"Zo\\u00eb\",\"\\u00e2ge\":25}",
+                JsonSerializer.serialize(new PersonWithNonAsciiPropertyNames("Zo\u00eb", 25), true, true));
+    }
+
+    @Test
+    public void serializeWithRegisteredSerializer() throws IOException {
+        DateTime dateTime = new DateTime(1989, 4, 8, 15, 15);
+        List<Object> values = Arrays.<Object>asList(dateTime, 42);
+
+        assertEquals("[\"" + dateTime + "\",42]", JsonSerializer.serialize(values, new JsonBaseSerializer().register(DateTime.class, new DateTimeSerializer())));
+        assertEquals("[\"" + dateTime + "\",42]", JsonSerializer.serialize(values, new JsonBaseSerializer(true).register(DateTime.class, new DateTimeSerializer())));
+    }
+
+    @Test
+    public void keepRegisteredSerializersToTheirInstance() throws IOException {
+        PersonWithEnum person = new PersonWithEnum("John", "Doe", PersonWithEnum.Gender.MALE, 25, Arrays.asList("Jane"));
+
+        jin.databind.JsonSerializer<PersonWithEnum.Gender> gender = new jin.databind.JsonSerializer<PersonWithEnum.Gender>() {
+            @Override
+            public void serialize(PersonWithEnum.Gender gender, JsonWriter writer) throws IOException {
+                writer.writeString(gender.name().toLowerCase());
+            }
+        };
+
+        for (boolean compiled : new boolean[] { false, true }) {
+            JsonBaseSerializer registered = new JsonBaseSerializer(compiled).register(PersonWithEnum.Gender.class, gender);
+
+            assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"gender\":\"male\",\"age\":25,\"friends\":[\"Jane\"]}",
+                    JsonSerializer.serialize(person, registered));
+            assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"gender\":\"MALE\",\"age\":25,\"friends\":[\"Jane\"]}",
+                    JsonSerializer.serialize(person, compiled));
+            assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"gender\":\"MALE\",\"age\":25,\"friends\":[\"Jane\"]}",
+                    JsonSerializer.serialize(person, registered.unregister(PersonWithEnum.Gender.class)));
+        }
+    }
+
+    @Test
+    public void throwExceptionIfGetterFails() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage(containsString("failed to read property 'age' of jin.databind.tests.pojo.PersonWithFailingGetter"));
+
+        JsonSerializer.serialize(new PersonWithFailingGetter("John"));
+    }
+
+    @Test
+    public void throwExceptionIfGetterFailsWithCompiledSerializers() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage(containsString("failed to read property 'age' of jin.databind.tests.pojo.PersonWithFailingGetter"));
+
+        JsonSerializer.serialize(new PersonWithFailingGetter("John"), true);
+    }
+
     static class JsonSerializer {
 
         public static String serialize(Object object) throws IOException {
+            return serialize(object, false);
+        }
+
+        public static String serialize(Object object, boolean compiled) throws IOException {
+            return serialize(object, compiled, false);
+        }
+
+        public static String serialize(Object object, boolean compiled, boolean escapeNonAscii) throws IOException {
+            return serialize(object, new JsonBaseSerializer(compiled), escapeNonAscii);
+        }
+
+        public static String serialize(Object object, JsonBaseSerializer serializer) throws IOException {
+            return serialize(object, serializer, false);
+        }
+
+        public static String serialize(Object object, JsonBaseSerializer serializer, boolean escapeNonAscii) throws IOException {
             ByteArrayOutputStream b = new ByteArrayOutputStream();
-            JsonWriter jsonWriter = new JsonWriter(b);
+            JsonWriter jsonWriter = new JsonWriter(b).setEscapeNonAscii(escapeNonAscii);
 
-            JsonBaseSerializer serializer = new JsonBaseSerializer();
             serializer.serialize(object, jsonWriter);
 
             jsonWriter.flush();
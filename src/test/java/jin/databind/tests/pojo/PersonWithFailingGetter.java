@@ -0,0 +1,27 @@
+package jin.databind.tests.pojo;
+
+import jin.annotations.JsonGetter;
+
+public class PersonWithFailingGetter {
+    private String firstName;
+
+    public PersonWithFailingGetter() {
+    }
+
+    public PersonWithFailingGetter(String firstName) {
+        this.firstName = firstName;
+    }
+
+    @JsonGetter(name="age")
+    public int getAge() {
+        throw new IllegalStateException("unknown age");
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+}
@@ -0,0 +1,36 @@
+package jin.databind.tests.pojo;
+
+import jin.annotations.Json;
+
+public class PersonWithNonAsciiPropertyNames {
+
+    @Json(property="pr\u00e9nom")
+    private String firstName;
+
+    @Json(property="\u00e2ge")
+    private int age;
+
+    public PersonWithNonAsciiPropertyNames() {
+    }
+
+    public PersonWithNonAsciiPropertyNames(String firstName, int age) {
+        this.firstName = firstName;
+        this.age = age;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+}
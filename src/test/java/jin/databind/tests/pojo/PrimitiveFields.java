@@ -0,0 +1,44 @@
+package jin.databind.tests.pojo;
+
+public class PrimitiveFields {
+    private boolean flag;
+
+    private int count;
+
+    private long id;
+
+    private float ratio;
+
+    private double amount;
+
+    public PrimitiveFields() {
+    }
+
+    public PrimitiveFields(boolean flag, int count, long id, float ratio, double amount) {
+        this.flag = flag;
+        this.count = count;
+        this.id = id;
+        this.ratio = ratio;
+        this.amount = amount;
+    }
+
+    public boolean isFlag() {
+        return flag;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public float getRatio() {
+        return ratio;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,313 @@
+package jin.io.tests;
+
+import jin.io.JsonProcessingException;
+import jin.io.JsonReader;
+import jin.io.JsonToken;
+import jin.io.NumberType;
+import jin.io.TokenType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonReaderTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void readTokensFromString() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("{ \"key\" : [1, -2.5e3, true, false, null] }");
+
+        TokenType[] expected = {
+                TokenType.OBJECT_START, TokenType.STRING, TokenType.COLON, TokenType.ARRAY_START,
+                TokenType.NUMBER, TokenType.COMMA, TokenType.NUMBER, TokenType.COMMA, TokenType.TRUE, TokenType.COMMA,
+                TokenType.FALSE, TokenType.COMMA, TokenType.NULL, TokenType.ARRAY_END, TokenType.OBJECT_END,
+                TokenType.END_OF_STREAM
+        };
+
+        for (TokenType type : expected) {
+            assertEquals(type, reader.nextToken().getType());
+        }
+
+        reader.close();
+    }
+
+    @Test
+    public void readTokensSpanningBufferRefills() throws IOException, JsonProcessingException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 20000; ++i) {
+            value.append((char) ('a' + i % 26));
+        }
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; ++i) {
+            json.append("\"").append(value, 0, i).append("\",").append(i).append(",");
+        }
+        json.append("\"").append(value).append("\"]");
+
+        JsonReader reader = new JsonReader(new StringReader(json.toString()));
+
+        assertEquals(TokenType.ARRAY_START, reader.nextToken().getType());
+
+        for (int i = 0; i < 1000; ++i) {
+            JsonToken string = reader.nextToken();
+            assertEquals(TokenType.STRING, string.getType());
+            assertEquals(value.substring(0, i), string.getValue());
+            assertEquals(TokenType.COMMA, reader.nextToken().getType());
+
+            JsonToken number = reader.nextToken();
+            assertEquals(TokenType.NUMBER, number.getType());
+            assertEquals(String.valueOf(i), number.getValue());
+            assertEquals(TokenType.COMMA, reader.nextToken().getType());
+        }
+
+        assertEquals(value.toString(), reader.nextToken().getValue());
+        assertEquals(TokenType.ARRAY_END, reader.nextToken().getType());
+        assertEquals(TokenType.END_OF_STREAM, reader.nextToken().getType());
+
+        reader.close();
+    }
+
+    @Test
+    public void readNumbersAsLongAndDouble() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("[0, -42, 9223372036854775807, -9223372036854775808, 1.25, -2.5e3, 1E-5, 12345678901234567890.5]");
+
+        reader.readToken();
+        reader.expect(TokenType.ARRAY_START);
+
+        assertEquals(0L, reader.expectLong());
+        reader.expect(TokenType.COMMA);
+        assertEquals(-42L, reader.expectLong());
+        reader.expect(TokenType.COMMA);
+        assertEquals(Long.MAX_VALUE, reader.expectLong());
+        reader.expect(TokenType.COMMA);
+        assertEquals(Long.MIN_VALUE, reader.expectLong());
+        reader.expect(TokenType.COMMA);
+        assertEquals(1.25, reader.expectDouble(), 0.0);
+        reader.expect(TokenType.COMMA);
+        assertEquals(-2500.0, reader.expectDouble(), 0.0);
+        reader.expect(TokenType.COMMA);
+        assertEquals(1e-5, reader.expectDouble(), 0.0);
+        reader.expect(TokenType.COMMA);
+        assertEquals(12345678901234567890.5, reader.expectDouble(), 0.0);
+
+        reader.expect(TokenType.ARRAY_END);
+
+        reader.close();
+    }
+
+    @Test
+    public void readNumbersWithoutStringConversion() throws IOException, JsonProcessingException {
+        String[] numbers = { "0.1", "2.2250738585072012e-308", "4.9e-324", "1.7976931348623157e308", "9007199254740993",
+                "123456789012345678901234567890", "1.00000017881393432617187499", "7.038531e-26", "-0.0", "1e-400" };
+
+        for (String number : numbers) {
+            JsonReader reader = new JsonReader(number);
+            reader.readToken();
+
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(number)), Double.doubleToLongBits(reader.currentDouble()));
+            assertEquals(Float.floatToIntBits(Float.parseFloat(number)), Float.floatToIntBits(reader.currentFloat()));
+
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readNarrowestNumberType() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("[-2147483648, 2147483648, -9223372036854775809, 1.0, 1e2]");
+
+        reader.readToken();
+        reader.consume(TokenType.ARRAY_START);
+
+        assertEquals(NumberType.INT, reader.currentNumberType());
+        assertEquals(Integer.MIN_VALUE, reader.currentInt());
+        reader.consume(TokenType.NUMBER);
+        reader.consume(TokenType.COMMA);
+        assertEquals(NumberType.LONG, reader.currentNumberType());
+        reader.consume(TokenType.NUMBER);
+        reader.consume(TokenType.COMMA);
+        assertEquals(NumberType.BIG_INTEGER, reader.currentNumberType());
+        assertEquals(new BigInteger("-9223372036854775809"), reader.currentBigInteger());
+        reader.consume(TokenType.NUMBER);
+        reader.consume(TokenType.COMMA);
+        assertEquals(NumberType.DECIMAL, reader.currentNumberType());
+        assertEquals(new BigDecimal("1.0"), reader.currentBigDecimal());
+        reader.consume(TokenType.NUMBER);
+        reader.consume(TokenType.COMMA);
+        assertEquals(NumberType.DECIMAL, reader.currentNumberType());
+
+        reader.close();
+    }
+
+    @Test
+    public void throwExceptionIfSkippedValueExceedsMaxDepth() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("{\"a\": [[1]], \"b\": [[[2]]]}").setMaxDepth(3);
+
+        reader.readToken();
+        reader.consume(TokenType.OBJECT_START);
+        reader.consume(TokenType.STRING);
+        reader.consume(TokenType.COLON);
+        reader.skipValue();
+        assertEquals(1, reader.currentDepth());
+        reader.consume(TokenType.COMMA);
+        reader.consume(TokenType.STRING);
+        reader.consume(TokenType.COLON);
+
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("maximum nesting depth of 3 exceeded"));
+
+        reader.skipValue();
+    }
+
+    @Test
+    public void throwExceptionIfFractionHasNoDigits() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("1.");
+
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("unrecognized JSON token"));
+
+        reader.readToken();
+    }
+
+    @Test
+    public void throwExceptionIfKeywordIsTruncated() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("[true, fals]");
+
+        reader.readToken();
+        reader.expect(TokenType.ARRAY_START);
+        reader.expect(TokenType.TRUE);
+
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("unrecognized JSON token"));
+
+        reader.expect(TokenType.COMMA);
+    }
+
+    @Test
+    public void readUtf8TokensFromInputStream() throws IOException, JsonProcessingException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 5000; ++i) {
+            value.append("a\u00e9\u20ac");
+            value.appendCodePoint(0x1F600);
+        }
+
+        String json = "{\"\u00e9t\u00e9\" : \"" + value + "\", \"n\" : 1}";
+
+        JsonReader reader = new JsonReader(new ByteArrayInputStream(json.getBytes("UTF-8")));
+
+        reader.readToken();
+        reader.expect(TokenType.OBJECT_START);
+
+        assertEquals("\u00e9t\u00e9", reader.expect(TokenType.STRING).getValue());
+        reader.expect(TokenType.COLON);
+        assertEquals(value.toString(), reader.expect(TokenType.STRING).getValue());
+        reader.expect(TokenType.COMMA);
+        assertEquals("n", reader.expect(TokenType.STRING).getValue());
+        reader.expect(TokenType.COLON);
+        assertEquals(1L, reader.expectLong());
+        reader.expect(TokenType.OBJECT_END);
+
+        reader.close();
+    }
+
+    @Test
+    public void readStringWithEscapeSequences() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\\u20AC\\ud83d\\ude00\"");
+
+        assertEquals("a\"b\\c/d\b\f\n\r\t\u00e9\u20ac\ud83d\ude00", reader.nextToken().getValue());
+
+        reader.close();
+    }
+
+    @Test
+    public void readLongStringWithEscapeSequencesSpanningBufferRefills() throws IOException, JsonProcessingException {
+        StringBuilder expected = new StringBuilder();
+        StringBuilder json = new StringBuilder("\"");
+
+        for (int i = 0; i < 10000; ++i) {
+            expected.append("<p class=\"x\">").append(i).append("</p>\n");
+            json.append("<p class=\\\"x\\\">").append(i).append("<\\/p>\\n");
+        }
+
+        json.append("\"");
+
+        JsonReader reader = new JsonReader(new StringReader(json.toString()));
+
+        assertEquals(expected.toString(), reader.nextToken().getValue());
+
+        reader.close();
+    }
+
+    @Test
+    public void throwExceptionIfEscapeSequenceIsInvalid() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("\"ab\\xc\"");
+
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("invalid escape sequence"));
+
+        reader.readToken();
+    }
+
+    @Test
+    public void readTokensThroughCursorAccessors() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("{\"name\" : \"a\\tb\", \"count\" : 12}");
+
+        reader.readToken();
+        assertEquals(TokenType.OBJECT_START, reader.currentType());
+        reader.consume(TokenType.OBJECT_START);
+
+        assertEquals(TokenType.STRING, reader.currentType());
+        assertEquals("name", new String(reader.currentChars(), reader.currentCharsStart(), reader.currentCharsLength()));
+        assertEquals("name", reader.expectString());
+        reader.consume(TokenType.COLON);
+
+        assertEquals("a\tb", new String(reader.currentChars(), reader.currentCharsStart(), reader.currentCharsLength()));
+
+        JsonToken token = reader.currentToken();
+        assertEquals(TokenType.STRING, token.getType());
+        assertEquals("a\tb", token.getValue());
+        assertEquals(token, reader.expect(TokenType.STRING));
+
+        reader.consume(TokenType.COMMA);
+        reader.consume(TokenType.STRING);
+        reader.consume(TokenType.COLON);
+
+        assertEquals(TokenType.NUMBER, reader.currentType());
+        assertEquals(12L, reader.currentLong());
+        reader.consume(TokenType.NUMBER);
+        reader.consume(TokenType.OBJECT_END);
+
+        assertEquals(TokenType.END_OF_STREAM, reader.currentType());
+
+        reader.close();
+    }
+
+    @Test
+    public void materializeTokenTextOnDemand() throws IOException, JsonProcessingException {
+        JsonReader reader = new JsonReader("[1.50e2, \"x\\u0041y\"]");
+
+        reader.readToken();
+        reader.consume(TokenType.ARRAY_START);
+
+        assertEquals(150.0, reader.currentDouble(), 0.0);
+        assertEquals("1.50e2", reader.currentString());
+        assertTrue(reader.currentString() == reader.currentString());
+        reader.consume(TokenType.NUMBER);
+        reader.consume(TokenType.COMMA);
+
+        assertEquals("xAy", reader.currentString());
+        assertTrue(reader.currentString() == reader.currentToken().getValue());
+
+        reader.close();
+    }
+}
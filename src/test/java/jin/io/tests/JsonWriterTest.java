@@ -0,0 +1,144 @@
+package jin.io.tests;
+
+import jin.io.JsonWriter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonWriterTest {
+
+    @Test
+    public void writeObjectWithFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(out);
+
+        writer.writeObjectStart()
+                .writeField("s", "\u00e9t\u00e9 \u20ac \ud83d\ude00").writeComma()
+                .writeField("i", Integer.MIN_VALUE).writeComma()
+                .writeField("l", Long.MAX_VALUE).writeComma()
+                .writeField("d", 2.5).writeComma()
+                .writeField("b", false).writeComma()
+                .writeField("bi", new BigInteger("123456789012345678901234567890")).writeComma()
+                .writeField("bd", new BigDecimal("1.10")).writeComma()
+                .writeFieldName("n").writeNull()
+                .writeObjectEnd();
+
+        writer.close();
+
+        assertEquals("{\"s\":\"\u00e9t\u00e9 \u20ac \ud83d\ude00\",\"i\":-2147483648,\"l\":9223372036854775807,\"d\":2.5,"
+                + "\"b\":false,\"bi\":123456789012345678901234567890,\"bd\":1.10,\"n\":null}", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void writeMoreThanBufferSize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(out);
+
+        StringBuilder expected = new StringBuilder("[");
+
+        writer.writeArrayStart();
+
+        for (int i = 0; i < 10000; ++i) {
+            if (i > 0) {
+                writer.writeComma();
+                expected.append(",");
+            }
+
+            writer.writeLong(-i * 1000003L).writeComma().writeString("\u00e9" + i);
+            expected.append(-i * 1000003L).append(",\"\u00e9").append(i).append("\"");
+        }
+
+        writer.writeArrayEnd();
+        expected.append("]");
+
+        writer.close();
+
+        assertEquals(expected.toString(), out.toString("UTF-8"));
+    }
+
+    @Test
+    public void writeEscapedStrings() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(out);
+
+        writer.writeArrayStart()
+                .writeString("say \"hi\"\\/").writeComma()
+                .writeString("\b\f\n\r\t\u0000\u001f").writeComma()
+                .writeString("<p>clean</p>")
+                .writeArrayEnd();
+
+        writer.close();
+
+        assertEquals("[\"say \\\"hi\\\"\\\\/\",\"\\b\\f\\n\\r\\t\\u0000\\u001f\",\"<p>clean</p>\"]", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void writeNonAsciiAsUnicodeEscapes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(out).setEscapeNonAscii(true);
+
+        writer.writeFieldName("\u00e9").writeString("a\u20ac\ud83d\ude00\n");
+
+        writer.close();
+
+        assertEquals("\"\\u00e9\":\"a\\u20ac\\ud83d\\ude00\\n\"", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void writeNumbers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(out);
+
+        writer.writeArrayStart()
+                .writeInt(0).writeComma()
+                .writeInt(-7).writeComma()
+                .writeInt(Integer.MAX_VALUE).writeComma()
+                .writeLong(Long.MIN_VALUE).writeComma()
+                .writeLong(-12345678901L).writeComma()
+                .writeDouble(0.0).writeComma()
+                .writeDouble(-0.0).writeComma()
+                .writeDouble(1.0).writeComma()
+                .writeDouble(142.25).writeComma()
+                .writeDouble(0.001).writeComma()
+                .writeDouble(1.0E-4).writeComma()
+                .writeDouble(1.0E7).writeComma()
+                .writeDouble(9999999.5).writeComma()
+                .writeDouble(2.0E23).writeComma()
+                .writeDouble(Double.MAX_VALUE).writeComma()
+                .writeDouble(Double.MIN_VALUE).writeComma()
+                .writeFloat(0.1f).writeComma()
+                .writeFloat(-3.0f).writeComma()
+                .writeFloat(1.0E10f).writeComma()
+                .writeFloat(Float.MIN_VALUE)
+                .writeArrayEnd();
+
+        writer.close();
+
+        assertEquals("[0,-7,2147483647,-9223372036854775808,-12345678901,0.0,-0.0,1.0,142.25,0.001,1.0E-4,1.0E7,9999999.5,2.0E23,"
+                + "1.7976931348623157E308,4.9E-324,0.1,-3.0,1.0E10,1.4E-45]", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void writeShortestRoundTripDoubles() throws IOException {
+        double[] values = { 0.3, 2.0 / 3, 1.0E23, 5.0E-324, 1.2867339994152361E18, Math.PI };
+
+        for (double value : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonWriter writer = new JsonWriter(out);
+
+            writer.writeDouble(value);
+            writer.close();
+
+            String json = out.toString("UTF-8");
+
+            assertEquals(value, Double.parseDouble(json), 0.0);
+            assertTrue(json.length() <= Double.toString(value).length());
+        }
+    }
+}
@@ -344,6 +344,83 @@ public class JsonDeserializerTest {
         assertEquals(node.toJsonString(), json.replaceAll("\\s+", ""));
     }
 
+    @Test
+    public void parseEscapedStringValue() throws IOException, JsonProcessingException {
+        String json = "{\"k\\\"ey\":\"a\\\\b\\n\\u0001\"}";
+
+        JsonNode node = JsonDeserializer.deserialize(json);
+
+        JsonObject object = (JsonObject) node;
+
+        assertTrue(object.containsKey("k\"ey"));
+        assertEquals(object.get("k\"ey").stringValue(), "a\\b\n\u0001");
+
+        assertEquals(node.toJsonString(), json);
+    }
+
+    @Test
+    public void parseObjectWithManyMembers() throws IOException, JsonProcessingException {
+        StringBuilder json = new StringBuilder("{");
+
+        for (int i = 0; i < 50000; ++i) {
+            json.append(i > 0 ? "," : "").append("\"k").append(i).append("\":").append(i);
+        }
+
+        json.append("}");
+
+        JsonNode node = JsonDeserializer.deserialize(json.toString());
+
+        assertEquals(50000, ((JsonObject) node).size());
+        assertEquals(49999, ((JsonObject) node).get("k49999").intValue());
+        assertEquals(json.toString(), node.toJsonString());
+    }
+
+    @Test
+    public void parseObjectWithDuplicateKeys() throws IOException, JsonProcessingException {
+        JsonNode node = JsonDeserializer.deserialize("{\"a\":1,\"b\":2,\"a\":3}");
+
+        assertEquals("{\"a\":3,\"b\":2}", node.toJsonString());
+    }
+
+    @Test
+    public void throwExceptionIfObjectHasTrailingComma() throws IOException, JsonProcessingException {
+        thrown.expect(JsonProcessingException.class);
+
+        JsonDeserializer.deserialize("{\"a\":1,}");
+    }
+
+    @Test
+    public void parseDeeplyNestedDocument() throws IOException, JsonProcessingException {
+        StringBuilder json = new StringBuilder();
+
+        for (int i = 0; i < 100000; ++i) {
+            json.append(i % 2 == 0 ? "[" : "{\"k\":");
+        }
+
+        json.append("null");
+
+        for (int i = 100000 - 1; i >= 0; --i) {
+            json.append(i % 2 == 0 ? "]" : "}");
+        }
+
+        JsonReader reader = new JsonReader(json.toString()).setMaxDepth(Integer.MAX_VALUE);
+        JsonNode node = new jin.tree.JsonDeserializer().deserialize(reader);
+
+        for (int i = 0; i < 100000; ++i) {
+            node = i % 2 == 0 ? ((JsonArray) node).get(0) : ((JsonObject) node).get("k");
+        }
+
+        assertTrue(node.isNull());
+    }
+
+    @Test
+    public void throwExceptionIfMaxDepthIsExceeded() throws IOException, JsonProcessingException {
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("maximum nesting depth of 2 exceeded at position 12"));
+
+        new jin.tree.JsonDeserializer().deserialize(new JsonReader("[[1], {\"a\": [2]}]").setMaxDepth(2));
+    }
+
     @Test
     public void throwExceptionIfStringValueIsUnclosed() throws IOException, JsonProcessingException {
         String json = "{ \"key\" : \"value }";
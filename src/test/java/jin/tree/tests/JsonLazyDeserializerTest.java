@@ -0,0 +1,118 @@
+package jin.tree.tests;
+
+import jin.Json;
+import jin.io.JsonProcessingException;
+import jin.io.JsonReader;
+import jin.io.UncheckedJsonProcessingException;
+import jin.tree.JsonArray;
+import jin.tree.JsonDeserializer;
+import jin.tree.JsonLazyDeserializer;
+import jin.tree.JsonNode;
+import jin.tree.JsonObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class JsonLazyDeserializerTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void parseDocumentLikeTree() throws IOException, JsonProcessingException {
+        String json = "{\"name\":\"Jos\\u00e9\",\"age\":25,\"id\":12345678901,\"score\":-1.5e3,\"active\":true,\"parent\":null,"
+                + "\"empty\":{},\"tags\":[],\"friends\":[{\"name\":\"Jane\",\"ids\":[1,[2,3],{}]},\"Joe\",0.1]}";
+
+        JsonNode tree = new JsonDeserializer().deserialize(new JsonReader(json));
+        JsonNode lazy = new JsonLazyDeserializer().deserialize(new StringReader(json));
+
+        assertThat(lazy, instanceOf(JsonObject.class));
+        assertThat(lazy.get("friends"), instanceOf(JsonArray.class));
+        assertEquals(tree.toJsonString(), lazy.toJsonString());
+    }
+
+    @Test
+    public void parseOnlyAccessedContainers() throws IOException, JsonProcessingException {
+        JsonNode node = new JsonLazyDeserializer().deserialize("{\"header\":{\"id\":1},\"body\":{\"broken\" 2}}");
+
+        assertEquals(1, node.get("header").get("id").intValue());
+
+        thrown.expect(UncheckedJsonProcessingException.class);
+
+        node.get("body").size();
+    }
+
+    @Test
+    public void throwExceptionOnEveryAccessToMalformedContainer() throws IOException, JsonProcessingException {
+        JsonNode node = new JsonLazyDeserializer().deserialize("{\"h\":{\"a\":1,\"b\":tru},\"l\":[1,tru]}");
+        int failures = 0;
+
+        for (JsonNode container : new JsonNode[] { node.get("h"), node.get("h"), node.get("l"), node.get("l") }) {
+            try {
+                container.size();
+            } catch (UncheckedJsonProcessingException e) {
+                failures++;
+            }
+
+            try {
+                container.toJsonString();
+            } catch (UncheckedJsonProcessingException e) {
+                failures++;
+            }
+        }
+
+        assertEquals(8, failures);
+    }
+
+    @Test
+    public void parseLazyTreeFromUtf8Stream() throws IOException, JsonProcessingException {
+        byte[] json = "{\"name\":\"Jos\u00e9 \u263A\",\"tags\":[\"caf\u00e9\"]}".getBytes(StandardCharsets.UTF_8);
+
+        JsonNode node = new JsonLazyDeserializer().deserialize(new JsonReader(new ByteArrayInputStream(json)));
+
+        assertEquals("Jos\u00e9 \u263A", node.get("name").stringValue());
+        assertEquals("caf\u00e9", node.get("tags").get(0).stringValue());
+    }
+
+    @Test
+    public void leaveReaderOpenAfterParsingLazyTree() throws IOException, JsonProcessingException {
+        StringReader reader = new StringReader("[1]");
+
+        Json.readLazyTree(reader);
+
+        assertTrue(reader.ready());
+    }
+
+    @Test
+    public void parseLazyTreeAtMaxDepth() throws IOException, JsonProcessingException {
+        JsonNode node = new JsonLazyDeserializer().setMaxDepth(3).deserialize("[{\"a\":[1]}]");
+
+        assertEquals(1, node.get(0).get("a").get(0).intValue());
+    }
+
+    @Test
+    public void throwExceptionIfLazyTreeExceedsMaxDepth() throws IOException, JsonProcessingException {
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("maximum nesting depth of 2 exceeded at position 12"));
+
+        new JsonLazyDeserializer().setMaxDepth(2).deserialize("[[1], {\"a\": [2]}]");
+    }
+
+    @Test
+    public void throwExceptionIfLazyObjectHasTrailingComma() throws IOException, JsonProcessingException {
+        thrown.expect(JsonProcessingException.class);
+
+        new JsonLazyDeserializer().deserialize("{\"a\":1,}");
+    }
+}
@@ -0,0 +1,148 @@
+package jin.tree.tests;
+
+import jin.io.JsonProcessingException;
+import jin.io.JsonReader;
+import jin.tree.JsonDeserializer;
+import jin.tree.JsonNode;
+import jin.tree.JsonTapeDeserializer;
+import jin.tree.JsonTapeNode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonTapeDeserializerTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void parseDocumentLikeTree() throws IOException, JsonProcessingException {
+        String json = "{\"name\":\"Jos\\u00e9 \\u263A\",\"age\":25,\"id\":12345678901,\"big\":123456789012345678901234567890,"
+                + "\"score\":-1.5e3,\"active\":true,\"deleted\":false,\"parent\":null,\"empty\":{},\"tags\":[],"
+                + "\"friends\":[{\"name\":\"Jane\",\"ids\":[1,[2,3],{}]},\"Joe\",0.1]}";
+
+        JsonNode tree = new JsonDeserializer().deserialize(new JsonReader(json));
+        JsonNode tape = new JsonTapeDeserializer().deserialize(new JsonReader(json));
+
+        assertEquals(tree.toJsonString(), tape.toJsonString());
+        assertEquals(tree.get("friends").toJsonString(), tape.get("friends").toJsonString());
+    }
+
+    @Test
+    public void navigateTape() throws IOException, JsonProcessingException {
+        String json = "{\"name\":\"Jos\\u00e9 \\u263A\",\"age\":25,\"id\":12345678901,\"big\":123456789012345678901234567890,"
+                + "\"score\":-1.5e3,\"active\":true,\"parent\":null,\"friends\":[{\"name\":\"Jane\"},\"Joe\",[]]}";
+
+        JsonNode node = new JsonTapeDeserializer().deserialize(new JsonReader(json));
+
+        assertTrue(node.isObject());
+        assertEquals(8, node.size());
+        assertEquals("Jos\u00e9 \u263A", node.get("name").stringValue());
+        assertTrue(node.get("age").isInt());
+        assertEquals(25, node.get("age").intValue());
+        assertTrue(node.get("id").isLong());
+        assertEquals(12345678901L, node.get("id").longValue());
+        assertEquals(new BigInteger("123456789012345678901234567890"), node.get("big").bigIntValue());
+        assertEquals(new BigDecimal("-1.5e3"), node.get("score").bigDecimalValue());
+        assertEquals(-1500.0, node.get("score").doubleValue(), 0.0);
+        assertTrue(node.get("active").booleanValue());
+        assertTrue(node.get("parent").isNull());
+        assertEquals(null, node.get("missing"));
+        assertEquals(null, node.get(0));
+
+        JsonNode friends = node.get("friends");
+
+        assertTrue(friends.isArray());
+        assertEquals(3, friends.size());
+        assertEquals("Jane", friends.get(0).get("name").stringValue());
+        assertEquals("Joe", friends.get(1).stringValue());
+        assertEquals(0, friends.get(2).size());
+
+        StringBuilder elements = new StringBuilder();
+
+        for (JsonNode friend : (JsonTapeNode) friends) {
+            elements.append(friend.toJsonString());
+        }
+
+        assertEquals("{\"name\":\"Jane\"}\"Joe\"[]", elements.toString());
+    }
+
+    @Test
+    public void parseScalarDocument() throws IOException, JsonProcessingException {
+        JsonNode node = new JsonTapeDeserializer().deserialize(new JsonReader("\"value\""));
+
+        assertEquals("value", node.stringValue());
+        assertEquals(0, node.size());
+        assertEquals("\"value\"", node.toJsonString());
+    }
+
+    @Test
+    public void getLastValueOfDuplicateKey() throws IOException, JsonProcessingException {
+        JsonNode node = new JsonTapeDeserializer().deserialize(new JsonReader("{\"a\":1,\"b\":2,\"a\":3}"));
+
+        assertEquals(3, node.get("a").intValue());
+    }
+
+    @Test
+    public void throwExceptionIfArrayIndexIsOutOfBounds() throws IOException, JsonProcessingException {
+        thrown.expect(IndexOutOfBoundsException.class);
+
+        new JsonTapeDeserializer().deserialize(new JsonReader("[1,2]")).get(2);
+    }
+
+    @Test
+    public void throwExceptionIfTapeObjectHasTrailingComma() throws IOException, JsonProcessingException {
+        thrown.expect(JsonProcessingException.class);
+
+        new JsonTapeDeserializer().deserialize(new JsonReader("{\"a\":1,}"));
+    }
+
+    @Test
+    public void throwExceptionIfTapeExceedsMaxDepth() throws IOException, JsonProcessingException {
+        thrown.expect(JsonProcessingException.class);
+        thrown.expectMessage(containsString("maximum nesting depth of 2 exceeded at position 12"));
+
+        new JsonTapeDeserializer().deserialize(new JsonReader("[[1], {\"a\": [2]}]").setMaxDepth(2));
+    }
+
+    @Test
+    public void parseDirectTapeLikeHeapTape() throws IOException, JsonProcessingException {
+        StringBuilder json = new StringBuilder("[");
+
+        for (int i = 0; i < 150000; ++i) {
+            json.append(i > 0 ? "," : "").append("{\"k\":\"value \\u263A ").append(i).append("\",\"n\":").append(i * 100000L).append("}");
+        }
+
+        json.append("]");
+
+        JsonNode heap = new JsonTapeDeserializer().deserialize(new JsonReader(json.toString()));
+
+        try (JsonTapeNode direct = new JsonTapeDeserializer().deserializeDirect(new JsonReader(json.toString()))) {
+            assertEquals(150000, direct.size());
+            assertEquals("value \u263A 149999", direct.get(149999).get("k").stringValue());
+            assertEquals(14999900000L, direct.get(149999).get("n").longValue());
+            assertEquals(heap.toJsonString(), direct.toJsonString());
+        }
+    }
+
+    @Test
+    public void throwExceptionIfDirectTapeIsReadAfterClose() throws IOException, JsonProcessingException {
+        thrown.expect(IllegalStateException.class);
+
+        JsonTapeNode node = new JsonTapeDeserializer().deserializeDirect(new JsonReader("{\"a\":1}"));
+        JsonNode child = node.get("a");
+
+        node.close();
+        node.close();
+
+        child.intValue();
+    }
+}